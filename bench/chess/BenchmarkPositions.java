@@ -0,0 +1,93 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// FIXED POSITION SETS SHARED BY THE BENCHMARKS, SO RESULTS ARE COMPARABLE BETWEEN RUNS
+public final class BenchmarkPositions {
+
+	public static final String OPENING = "opening";
+	public static final String MIDDLEGAME = "middlegame";
+	public static final String ENDGAME = "endgame";
+	public static final String CHECK = "check";
+
+	private static final String[] OPENING_FENS = {
+			"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+			"r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+			"rnbqkb1r/pp2pppp/3p1n2/8/3NP3/8/PPP2PPP/RNBQKB1R w KQkq - 1 5" };
+
+	private static final String[] MIDDLEGAME_FENS = {
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+			"r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/3P1N2/PPP2PPP/RNBQK2R w KQkq - 1 5" };
+
+	private static final String[] ENDGAME_FENS = {
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+			"8/5pk1/6p1/8/3R4/6P1/5PK1/8 w - - 0 1",
+			"8/8/4k3/8/8/3q4/8/6K1 w - - 0 1" };
+
+	// THE SIDE TO MOVE IS IN CHECK: MATED IN THE FIRST THREE, WITH A WAY OUT (BLOCK, CAPTURE,
+	// KING MOVE OUT OF A DOUBLE CHECK) IN THE OTHERS
+	private static final String[] CHECK_FENS = {
+			"r1bqkb1r/pppp1Qpp/2n2n2/4p3/2B1P3/8/PPPP1PPP/RNB1K1NR b KQkq - 0 4",
+			"R5k1/5ppp/8/8/8/8/5PPP/6K1 b - - 0 1",
+			"8/8/8/8/8/5k2/6q1/7K w - - 0 1",
+			"rnbqkbnr/ppp2ppp/3p4/1B2p3/4P3/8/PPPP1PPP/RNBQK1NR b KQkq - 1 3",
+			"4k3/8/8/8/8/8/4r3/4K3 w - - 0 1",
+			"4k3/8/8/8/1b6/3n4/8/4K3 w - - 0 1" };
+
+	private BenchmarkPositions() {
+	}
+
+	public static String[] fens(String phase) {
+		switch (phase) {
+		case OPENING:
+			return OPENING_FENS;
+		case MIDDLEGAME:
+			return MIDDLEGAME_FENS;
+		case ENDGAME:
+			return ENDGAME_FENS;
+		case CHECK:
+			return CHECK_FENS;
+		}
+		throw new IllegalArgumentException("Unknown phase: " + phase);
+	}
+
+	public static ChessMatch[] matches(String phase) {
+		String[] fens = fens(phase);
+		ChessMatch[] matches = new ChessMatch[fens.length];
+
+		for (int i = 0; i < fens.length; i++) {
+			matches[i] = new ChessMatch(fens[i]);
+		}
+		return matches;
+	}
+
+	// THE SIDE TO MOVE IN EACH FEN OF THE SET. IN A MATED POSITION ChessMatch GIVES THE TURN
+	// BACK TO THE WINNER, SO CHECK AND MATE TESTS TAKE THE SIDE FROM HERE
+	public static Color[] sidesToMove(String phase) {
+		String[] fens = fens(phase);
+		Color[] sides = new Color[fens.length];
+
+		for (int i = 0; i < fens.length; i++) {
+			sides[i] = (fens[i].split(" ")[1].equals("w")) ? Color.WHITE : Color.BLACK;
+		}
+		return sides;
+	}
+
+	// EVERY PIECE OF THE GIVEN KIND, FOR BOTH SIDES, ACROSS THE WHOLE SET
+	public static ChessPiece[] pieces(ChessMatch[] matches, int kind) {
+		List<ChessPiece> pieces = new ArrayList<>();
+
+		for (ChessMatch match : matches) {
+			for (Color color : Color.values()) {
+				for (ChessPiece p : match.piecesOf(color)) {
+					if (p.getKind() == kind) {
+						pieces.add(p);
+					}
+				}
+			}
+		}
+		return pieces.toArray(new ChessPiece[0]);
+	}
+}
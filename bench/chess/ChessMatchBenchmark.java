@@ -0,0 +1,146 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import boardgame.Position;
+
+// MOVE EXECUTION, CHECK AND MATE DETECTION AND BOARD EXPORT ON ChessMatch.
+// ONE OPERATION COVERS EVERY POSITION OF THE SET.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessMatchBenchmark {
+
+	@Param({ BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME,
+			BenchmarkPositions.CHECK })
+	public String phase;
+
+	private ChessMatch[] matches;
+	private Color[] sidesToMove;
+	private LegalMoves[] legalMoves;
+	private int[] moveBuffer = new int[LegalMoves.MAX_MOVES];
+
+	@Setup
+	public void loadPositions() {
+		matches = BenchmarkPositions.matches(phase);
+		sidesToMove = BenchmarkPositions.sidesToMove(phase);
+		legalMoves = new LegalMoves[matches.length];
+
+		for (int i = 0; i < matches.length; i++) {
+			legalMoves[i] = new LegalMoves(matches[i]);
+		}
+	}
+
+	// ALL LEGAL MOVES OF THE SIDE TO MOVE, WRITTEN INTO ONE REUSED BUFFER
+	@Benchmark
+	public int generateLegalMoves() {
+		int total = 0;
+
+		for (int i = 0; i < matches.length; i++) {
+			legalMoves[i].compute(sidesToMove[i]);
+			total += legalMoves[i].generate(moveBuffer, 0);
+		}
+		return total;
+	}
+
+	@Benchmark
+	public void performChessMove(FreshPositions positions, Blackhole blackhole) {
+		for (int i = 0; i < positions.matches.length; i++) {
+			if (positions.sources[i] != null) {
+				blackhole.consume(positions.matches[i].performChessMove(positions.sources[i], positions.targets[i]));
+			}
+		}
+	}
+
+	@Benchmark
+	public void testCheck(Blackhole blackhole) {
+		for (int i = 0; i < matches.length; i++) {
+			blackhole.consume(matches[i].testCheck(sidesToMove[i]));
+		}
+	}
+
+	@Benchmark
+	public void testCheckMate(Blackhole blackhole) {
+		for (int i = 0; i < matches.length; i++) {
+			blackhole.consume(matches[i].testCheckMate(sidesToMove[i]));
+		}
+	}
+
+	@Benchmark
+	public void getPieces(Blackhole blackhole) {
+		for (ChessMatch match : matches) {
+			blackhole.consume(match.getPieces());
+		}
+	}
+
+	// performChessMove MUTATES THE MATCH, SO EVERY CALL NEEDS FRESH POSITIONS. THIS STATE IS
+	// KEPT APART SO THE PER-INVOCATION SETUP DOES NOT DISTURB THE OTHER BENCHMARKS. IT TAKES
+	// THE PHASE FROM THE BENCHMARK'S OWN PARAMETER
+	@State(Scope.Thread)
+	public static class FreshPositions {
+
+		private String phase;
+		private ChessMatch[] matches;
+
+		// FIRST LEGAL MOVE OF EACH POSITION, OR null WHEN THE SIDE TO MOVE HAS NONE (MATED)
+		private ChessPosition[] sources;
+		private ChessPosition[] targets;
+
+		@Setup(Level.Trial)
+		public void findMoves(ChessMatchBenchmark benchmark) {
+			phase = benchmark.phase;
+			String[] fens = BenchmarkPositions.fens(phase);
+			sources = new ChessPosition[fens.length];
+			targets = new ChessPosition[fens.length];
+
+			for (int i = 0; i < fens.length; i++) {
+				ChessMatch match = new ChessMatch(fens[i]);
+
+				if (match.getCheckMate()) {
+					continue;
+				}
+
+				for (ChessPiece p : match.piecesOf(match.getCurrentPlayer())) {
+					long moves = p.possibleMovesBitboard();
+
+					while (moves != 0L && sources[i] == null) {
+						int target = Long.numberOfTrailingZeros(moves);
+						moves &= moves - 1;
+
+						ChessPosition source = p.getChessPosition();
+						ChessPosition targetPosition = ChessPosition.fromPosition(new Position(target / 8, target % 8));
+						try {
+							new ChessMatch(fens[i]).performChessMove(source, targetPosition);
+							sources[i] = source;
+							targets[i] = targetPosition;
+						} catch (ChessException e) {
+							// LEAVES THE KING IN CHECK, TRY THE NEXT ONE
+						}
+					}
+				}
+			}
+		}
+
+		@Setup(Level.Invocation)
+		public void loadPositions() {
+			matches = BenchmarkPositions.matches(phase);
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Piece.possibleMoves() FOR EVERY CLASS IN chess.pieces, OVER EVERY PIECE OF THAT CLASS
+// IN THE POSITION SET. ONE OPERATION COVERS ALL OF THOSE PIECES.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PossibleMovesBenchmark {
+
+	@Param({ BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME })
+	public String phase;
+
+	@Param({ "Pawn", "Knight", "Bishop", "Rook", "Queen", "King" })
+	public String piece;
+
+	private ChessPiece[] pieces;
+
+	@Setup
+	public void setup() {
+		pieces = BenchmarkPositions.pieces(BenchmarkPositions.matches(phase), kind(piece));
+	}
+
+	@Benchmark
+	public void possibleMoves(Blackhole blackhole) {
+		for (ChessPiece p : pieces) {
+			blackhole.consume(p.possibleMoves());
+		}
+	}
+
+	@Benchmark
+	public void possibleMovesBitboard(Blackhole blackhole) {
+		for (ChessPiece p : pieces) {
+			blackhole.consume(p.possibleMovesBitboard());
+		}
+	}
+
+	private static int kind(String name) {
+		switch (name) {
+		case "Pawn":
+			return ChessPiece.PAWN;
+		case "Knight":
+			return ChessPiece.KNIGHT;
+		case "Bishop":
+			return ChessPiece.BISHOP;
+		case "Rook":
+			return ChessPiece.ROOK;
+		case "Queen":
+			return ChessPiece.QUEEN;
+		case "King":
+			return ChessPiece.KING;
+		}
+		throw new IllegalArgumentException("Unknown piece: " + name);
+	}
+}
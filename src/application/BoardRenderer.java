@@ -0,0 +1,93 @@
+package application;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import chess.ChessPiece;
+import chess.Color;
+
+// DRAWS ONE BOARD AT A FIXED PLACE OF AN ANSI TERMINAL, SO SEVERAL BOARDS CAN SHARE A SCREEN.
+// THE FIRST FRAME DRAWS EVERYTHING; AFTER THAT ONLY THE SQUARES THAT CHANGED ARE REDRAWN, EACH
+// AFTER A CURSOR MOVE, SO A MOVE COSTS A FEW DOZEN BYTES INSTEAD OF THE WHOLE BOARD AND NOTHING
+// IS ERASED. EVERY FRAME IS BUILT IN ONE REUSED StringBuilder AND WRITTEN WITH A SINGLE CALL.
+public class BoardRenderer {
+
+	private static final int UNKNOWN = -1;
+	private static final int HIGHLIGHT = 16;
+
+	private final PrintStream out;
+	private final int top;
+	private final int left;
+
+	// WHAT EACH SQUARE SHOWS ON SCREEN: 0 EMPTY, OR SIDE * 8 + KIND + 1, PLUS HIGHLIGHT
+	private final int[] cells = new int[64];
+	private final StringBuilder frame = new StringBuilder(1024);
+
+	// "top" AND "left" ARE THE TERMINAL LINE AND COLUMN OF THE BOARD'S TOP LEFT CORNER, FROM 1
+	public BoardRenderer(PrintStream out, int top, int left) {
+		this.out = out;
+		this.top = top;
+		this.left = left;
+		invalidate();
+	}
+
+	// THE NEXT FRAME DRAWS EVERYTHING, E.G. AFTER THE SCREEN WAS CLEARED
+	public void invalidate() {
+		Arrays.fill(cells, UNKNOWN);
+	}
+
+	public void render(ChessPiece[][] pieces) {
+		render(pieces, null);
+	}
+
+	// DRAWS THE SQUARES THAT DIFFER FROM THE LAST FRAME AND LEAVES THE CURSOR UNDER THE BOARD
+	public void render(ChessPiece[][] pieces, boolean[][] possibleMoves) {
+		frame.setLength(0);
+
+		if (cells[0] == UNKNOWN) {
+			for (int i = 0; i < 8; i++) {
+				moveTo(frame, top + i, left);
+				frame.append(8 - i).append(' ');
+			}
+			moveTo(frame, top + 8, left);
+			frame.append("  a b c d e f g h");
+		}
+
+		for (int i = 0; i < 8; i++) {
+			for (int j = 0; j < 8; j++) {
+				ChessPiece piece = pieces[i][j];
+				boolean background = possibleMoves != null && possibleMoves[i][j];
+				int cell = ((piece == null) ? 0 : piece.getSide() * 8 + piece.getKind() + 1) | (background ? HIGHLIGHT : 0);
+
+				if (cells[i * 8 + j] != cell) {
+					cells[i * 8 + j] = cell;
+					moveTo(frame, top + i, left + 2 + 2 * j);
+					appendPiece(frame, piece, background);
+				}
+			}
+		}
+
+		moveTo(frame, top + 9, left);
+		out.print(frame);
+		out.flush();
+	}
+
+	// ANSI CURSOR POSITION, LINE AND COLUMN FROM 1
+	static void moveTo(StringBuilder sb, int line, int column) {
+		sb.append("\033[").append(line).append(';').append(column).append('H');
+	}
+
+	static void appendPiece(StringBuilder sb, ChessPiece piece, boolean background) {
+		if (background) {
+			sb.append(UI.ANSI_BLUE_BACKGROUND);
+		}
+
+		if (piece == null) {
+			sb.append('-').append(UI.ANSI_RESET);
+		} else {
+			sb.append((piece.getColor() == Color.WHITE) ? UI.ANSI_WHITE : UI.ANSI_YELLOW);
+			sb.append(piece).append(UI.ANSI_RESET);
+		}
+		sb.append(' ');
+	}
+}
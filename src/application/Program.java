@@ -1,5 +1,7 @@
 package application;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.List;
@@ -9,6 +11,8 @@ import chess.ChessException;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.Tablebase;
+import metrics.MetricsRegistry;
 
 public class Program {
 
@@ -18,17 +22,41 @@ public class Program {
 		ChessMatch match = new ChessMatch();
 		List<ChessPiece> capturedPieces = new ArrayList<>();
 
-		while (!match.getCheckMate()) {
+		// THE RULES ENGINE'S METRICS, OFF UNTIL SWITCHED ON THROUGH JMX
+		MetricsRegistry.registerMBean();
+
+		// OPTIONAL: A DIRECTORY OF ENDGAME TABLEBASES (SEE chess.TablebaseGenerator)
+		if (args.length > 0) {
+			try {
+				match.setTablebase(new Tablebase(Paths.get(args[0])));
+			} catch (IOException e) {
+				System.out.println("Could not read the tablebases: " + e.getMessage());
+			}
+		}
+
+		// THE SCREEN IS CLEARED ONCE; AFTER THAT ONLY WHAT CHANGED IS REDRAWN
+		UI.clearScreen();
+
+		while (!match.getCheckMate() && !match.getDraw()) {
 			try {
-				UI.clearScreen();
-				UI.printMatch(match, capturedPieces);
+				UI.showMatch(match, capturedPieces);
 				System.out.println();
+
+				// A REPETITION OR FIFTY-MOVE DRAW ONLY ENDS THE GAME WHEN THE PLAYER CLAIMS IT
+				if (match.canClaimDraw()) {
+					System.out.print("Claim the draw? (y/n): ");
+
+					if (sc.nextLine().trim().equalsIgnoreCase("y")) {
+						match.claimDraw();
+						continue;
+					}
+				}
+
 				System.out.println("Source: ");
 				ChessPosition source = UI.readChessPosition(sc);
 
 				boolean[][] possibleMoves = match.possibleMoves(source);
-				UI.clearScreen();
-				UI.printBoard(match.getPieces(), possibleMoves);
+				UI.showBoard(match.getPieces(), possibleMoves);
 
 				System.out.println();
 				System.out.println("Target: ");
@@ -10,6 +10,7 @@ import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.ChessPosition;
 import chess.Color;
+import chess.Tablebase;
 
 public class UI {
 
@@ -47,91 +48,150 @@ public class UI {
 
 	}
 
+	// THE CONSOLE GAME'S BOARD, IN THE TOP LEFT CORNER OF THE TERMINAL (SEE showMatch)
+	private static final BoardRenderer BOARD = new BoardRenderer(System.out, 1, 1);
+
+	// EVERY FRAME IS BUILT HERE AND WRITTEN WITH ONE CALL
+	private static final StringBuilder FRAME = new StringBuilder(2048);
+
 	// https://stackoverflow.com/questions/2979383/java-clear-the-console
 	public static void clearScreen() {
 		System.out.print("\033[H\033[2J");
 		System.out.flush();
+		BOARD.invalidate();
 	}
 
 	public static void printMatch(ChessMatch match, List<ChessPiece> capturedPieces) {
-		printBoard(match.getPieces());
-		System.out.println();
-		printCapturedPieces(capturedPieces);
-		System.out.println();
-		System.out.println("Turn: " + match.getTurn());
+		FRAME.setLength(0);
+		appendBoard(FRAME, match.getPieces(), null);
+		FRAME.append('\n');
+		appendStatus(FRAME, match, capturedPieces);
+		write(FRAME);
+	}
+
+	// LIKE clearScreen AND printMatch, BUT ONLY THE SQUARES THAT CHANGED ARE REDRAWN, AND THE
+	// TEXT UNDER THE BOARD IS REPLACED
+	public static void showMatch(ChessMatch match, List<ChessPiece> capturedPieces) {
+		BOARD.render(match.getPieces());
+
+		FRAME.setLength(0);
+		FRAME.append("\033[J\n");
+		appendStatus(FRAME, match, capturedPieces);
+		write(FRAME);
+	}
+
+	// LIKE clearScreen AND printBoard, WITH THE SAME REDRAWING AS showMatch
+	public static void showBoard(ChessPiece[][] pieces, boolean[][] possibleMoves) {
+		BOARD.render(pieces, possibleMoves);
+
+		FRAME.setLength(0);
+		FRAME.append("\033[J");
+		write(FRAME);
+	}
 
-		if (!match.getCheckMate()) {
-			System.out.println("Waiting Player: " + match.getCurrentPlayer());
+	private static void appendStatus(StringBuilder sb, ChessMatch match, List<ChessPiece> capturedPieces) {
+		appendCapturedPieces(sb, capturedPieces);
+		sb.append('\n');
+		sb.append("Turn: ").append(match.getTurn()).append('\n');
+
+		if (match.getDraw()) {
+			sb.append("Draw! (").append(drawReason(match)).append(")\n");
+		}
+		else if (!match.getCheckMate()) {
+			sb.append("Waiting Player: ").append(match.getCurrentPlayer()).append('\n');
 
 			if (match.getCheck()) {
-				System.out.println("Check!");
+				sb.append("Check!\n");
 			}
+
+			if (match.canClaimDraw()) {
+				sb.append("A draw can be claimed (").append(drawReason(match)).append(")\n");
+			}
+
+			appendTablebaseResult(sb, match);
 		}
 		else {
-			System.out.println("CheckMate!");
-			System.out.println("The winner is: " + match.getCurrentPlayer());
+			sb.append("CheckMate!\n");
+			sb.append("The winner is: ").append(match.getCurrentPlayer()).append('\n');
 			
 		}
 	}
 
-	public static void printBoard(ChessPiece[][] pieces) {
-
-		for (int i = 0; i < pieces.length; i++) {
-			System.out.print(8 - i + " ");
-			for (int j = 0; j < pieces.length; j++) {
-				printPiece(pieces[i][j], false);
-			}
-			System.out.println();
+	private static String drawReason(ChessMatch match) {
+		if (match.isStalemate()) {
+			return "stalemate";
 		}
-		System.out.println("  a b c d e f g h");
+		return match.isThreefoldRepetition() ? "threefold repetition" : "fifty-move rule";
 	}
 
-	public static void printBoard(ChessPiece[][] pieces, boolean[][] possibleMoves) {
-		for (int i = 0; i < pieces.length; i++) {
-			System.out.print(8 - i + " ");
-			for (int j = 0; j < pieces.length; j++) {
-				printPiece(pieces[i][j], possibleMoves[i][j]);
-			}
-			System.out.println();
+	// THE EXACT OUTCOME, WHEN A TABLEBASE KNOWS THE POSITION
+	private static void appendTablebaseResult(StringBuilder sb, ChessMatch match) {
+		int result = match.probeTablebase();
+
+		if (result == Tablebase.UNKNOWN) {
+			return;
 		}
-		System.out.println("  a b c d e f g h");
-	}
 
-	private static void printPiece(ChessPiece piece, boolean background) {
-		if (background) {
-			System.out.print(ANSI_BLUE_BACKGROUND);
+		Color player = match.getCurrentPlayer();
+		Color opponent = (player == Color.WHITE) ? Color.BLACK : Color.WHITE;
+		int moves = (Tablebase.distance(result) + 1) / 2;
+
+		switch (Tablebase.outcome(result)) {
+		case Tablebase.WIN:
+			sb.append("Tablebase: ").append(player).append(" mates in ").append(moves).append('\n');
+			break;
+		case Tablebase.LOSS:
+			sb.append("Tablebase: ").append(opponent).append(" mates in ").append(moves).append('\n');
+			break;
+		default:
+			sb.append("Tablebase: draw\n");
 		}
+	}
 
-		if (piece == null) {
-			System.out.print("-" + ANSI_RESET);
-		} else {
+	public static void printBoard(ChessPiece[][] pieces) {
+		FRAME.setLength(0);
+		appendBoard(FRAME, pieces, null);
+		write(FRAME);
+	}
 
-			if ((piece.getColor() == Color.WHITE)) {
-				System.out.print(ANSI_WHITE + piece + ANSI_RESET);
-			} else {
-				System.out.print(ANSI_YELLOW + piece + ANSI_RESET);
+	public static void printBoard(ChessPiece[][] pieces, boolean[][] possibleMoves) {
+		FRAME.setLength(0);
+		appendBoard(FRAME, pieces, possibleMoves);
+		write(FRAME);
+	}
 
+	private static void appendBoard(StringBuilder sb, ChessPiece[][] pieces, boolean[][] possibleMoves) {
+		for (int i = 0; i < pieces.length; i++) {
+			sb.append(8 - i).append(' ');
+			for (int j = 0; j < pieces.length; j++) {
+				BoardRenderer.appendPiece(sb, pieces[i][j], possibleMoves != null && possibleMoves[i][j]);
 			}
+			sb.append('\n');
 		}
-		System.out.print(" ");
+		sb.append("  a b c d e f g h\n");
 	}
 
-	private static void printCapturedPieces(List<ChessPiece> capturedPieces) {
+	private static void appendCapturedPieces(StringBuilder sb, List<ChessPiece> capturedPieces) {
 		List<ChessPiece> whiteCapturedPieces = capturedPieces.stream().filter(x -> x.getColor() == Color.WHITE)
 				.collect(Collectors.toList());
 		List<ChessPiece> blackCapturedPieces = capturedPieces.stream().filter(x -> x.getColor() == Color.BLACK)
 				.collect(Collectors.toList());
 
-		System.out.println("Captured Pieces: ");
-		System.out.println("White: ");
-		System.out.print(ANSI_WHITE);
-		System.out.println(Arrays.toString(whiteCapturedPieces.toArray()));
-		System.out.println(ANSI_RESET);
+		sb.append("Captured Pieces: \n");
+		sb.append("White: \n");
+		sb.append(ANSI_WHITE);
+		sb.append(Arrays.toString(whiteCapturedPieces.toArray())).append('\n');
+		sb.append(ANSI_RESET).append('\n');
+
+		sb.append("Black: \n");
+		sb.append(ANSI_YELLOW);
+		sb.append(Arrays.toString(blackCapturedPieces.toArray())).append('\n');
+		sb.append(ANSI_RESET).append('\n');
 
-		System.out.println("Black: ");
-		System.out.print(ANSI_YELLOW);
-		System.out.println(Arrays.toString(blackCapturedPieces.toArray()));
-		System.out.println(ANSI_RESET);
+	}
 
+	private static void write(StringBuilder sb) {
+		System.out.print(sb);
+		System.out.flush();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,351 @@
+package application;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.Color;
+import chess.Move;
+import chess.TranspositionTable;
+import chess.engine.OpeningBook;
+import chess.engine.ParallelSearch;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import metrics.MetricsRegistry;
+
+// THE ENGINE SPEAKING UCI ON STANDARD INPUT AND OUTPUT, FOR CHESS GUIS AND TOURNAMENT RUNNERS.
+// THE MAIN THREAD ONLY READS COMMANDS; A SEARCH RUNS ON ITS OWN THREAD, SO "stop" AND
+// "isready" ARE ANSWERED WHILE IT THINKS. A COMMAND THAT CHANGES THE POSITION OR THE OPTIONS
+// WAITS FOR THE RUNNING SEARCH TO END.
+//
+// WITH OwnBook ON, A POSITION FOUND IN THE BookFile (A BOOK KEYED LIKE OpeningBook.open) IS
+// ANSWERED WITH A BOOK MOVE AT ONCE, WITHOUT SEARCHING.
+public class Uci {
+
+	private static final int DEFAULT_HASH = 16;
+	private static final int MAX_HASH = 4096;
+	private static final int MAX_THREADS = 256;
+
+	// TIME KEPT BACK FOR THE GUI AND THE PIPE, SO A MOVE IS NEVER SENT TOO LATE
+	private static final long MOVE_OVERHEAD = 50L;
+	private static final int DEFAULT_MOVES_TO_GO = 30;
+
+	private final PrintStream out;
+	private final ExecutorService searchThread = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "uci-search");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private ChessMatch match = new ChessMatch();
+	private int hashMegabytes = DEFAULT_HASH;
+	private int threads = 1;
+	private TranspositionTable table = new TranspositionTable(DEFAULT_HASH);
+	private ParallelSearch search = new ParallelSearch(1, table);
+
+	private boolean ownBook;
+	private OpeningBook book;
+	private final Random random = new Random();
+
+	private Future<?> running;
+	private volatile CountDownLatch stopSignal = new CountDownLatch(0);
+
+	public Uci(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws IOException {
+		// THE RULES ENGINE'S METRICS, OFF UNTIL SWITCHED ON THROUGH JMX
+		MetricsRegistry.registerMBean();
+
+		Uci uci = new Uci(new PrintStream(System.out, true));
+		uci.run(new BufferedReader(new InputStreamReader(System.in)));
+	}
+
+	public void run(BufferedReader in) throws IOException {
+		String line;
+
+		while ((line = in.readLine()) != null) {
+			if (!handle(line.trim())) {
+				break;
+			}
+		}
+
+		stop();
+		waitForSearch();
+		search.shutdown();
+		searchThread.shutdown();
+		openBook("");
+	}
+
+	// ONE LINE OF INPUT. FALSE AFTER "quit". UNKNOWN COMMANDS ARE IGNORED, AS UCI ASKS
+	boolean handle(String line) {
+		String[] tokens = line.split("\\s+");
+
+		switch (tokens[0]) {
+
+		case "uci":
+			out.println("id name Jchess");
+			out.println("id author mikxingu");
+			out.println("option name Hash type spin default " + DEFAULT_HASH + " min 1 max " + MAX_HASH);
+			out.println("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+			out.println("option name OwnBook type check default false");
+			out.println("option name BookFile type string default <empty>");
+			out.println("uciok");
+			break;
+		case "isready":
+			out.println("readyok");
+			break;
+		case "ucinewgame":
+			waitForSearch();
+			table.clear();
+			break;
+		case "setoption":
+			waitForSearch();
+			setOption(line);
+			break;
+		case "position":
+			waitForSearch();
+			position(tokens);
+			break;
+		case "go":
+			waitForSearch();
+			go(tokens);
+			break;
+		case "stop":
+			stop();
+			break;
+		case "quit":
+			return false;
+		}
+		return true;
+	}
+
+	// setoption name <NAME> value <VALUE>
+	private void setOption(String line) {
+		int name = line.indexOf(" name ");
+		int value = line.indexOf(" value ");
+
+		if (name < 0 || value < name) {
+			return;
+		}
+
+		String option = line.substring(name + 6, value).trim();
+		String text = line.substring(value + 7).trim();
+
+		if (option.equalsIgnoreCase("OwnBook")) {
+			ownBook = text.equalsIgnoreCase("true");
+			return;
+		}
+		if (option.equalsIgnoreCase("BookFile")) {
+			openBook(text.equals("<empty>") ? "" : text);
+			return;
+		}
+
+		int number;
+		try {
+			number = Integer.parseInt(text);
+		} catch (NumberFormatException e) {
+			out.println("info string Invalid value for " + option);
+			return;
+		}
+
+		if (option.equalsIgnoreCase("Hash")) {
+			hashMegabytes = Math.max(1, Math.min(number, MAX_HASH));
+			table = new TranspositionTable(hashMegabytes);
+			newSearch();
+		} else if (option.equalsIgnoreCase("Threads")) {
+			threads = Math.max(1, Math.min(number, MAX_THREADS));
+			newSearch();
+		}
+	}
+
+	// CLOSES THE CURRENT BOOK AND OPENS "file", OR NONE WHEN IT IS EMPTY
+	private void openBook(String file) {
+		try {
+			if (book != null) {
+				book.close();
+				book = null;
+			}
+			if (!file.isEmpty()) {
+				book = OpeningBook.open(Paths.get(file));
+			}
+		} catch (IOException | InvalidPathException e) {
+			out.println("info string Cannot open book " + file + ": " + e.getMessage());
+		}
+	}
+
+	private void newSearch() {
+		search.shutdown();
+		search = new ParallelSearch(threads, table);
+	}
+
+	// position startpos|fen <FEN> [moves <MOVE>...]
+	private void position(String[] tokens) {
+		int i = 1;
+		ChessMatch position;
+
+		try {
+			if (tokens.length > 1 && tokens[1].equals("startpos")) {
+				position = new ChessMatch();
+				i = 2;
+			} else if (tokens.length > 1 && tokens[1].equals("fen")) {
+				StringBuilder fen = new StringBuilder();
+
+				for (i = 2; i < tokens.length && !tokens[i].equals("moves"); i++) {
+					fen.append(tokens[i]).append(' ');
+				}
+				position = new ChessMatch(fen.toString());
+			} else {
+				return;
+			}
+
+			if (i < tokens.length && tokens[i].equals("moves")) {
+				for (i++; i < tokens.length; i++) {
+					position.playMove(Move.parse(tokens[i]));
+				}
+			}
+		} catch (ChessException e) {
+			out.println("info string " + e.getMessage());
+			return;
+		}
+
+		match = position;
+	}
+
+	// go [depth N] [nodes N] [movetime MS] [wtime MS] [btime MS] [winc MS] [binc MS]
+	// [movestogo N] [infinite]
+	private void go(String[] tokens) {
+		int depth = Search.MAX_PLY;
+		long nodes = 0L;
+		long moveTime = 0L;
+		long[] time = new long[2];
+		long[] increment = new long[2];
+		int movesToGo = 0;
+		boolean infinite = false;
+
+		for (int i = 1; i < tokens.length; i++) {
+			String value = (i + 1 < tokens.length) ? tokens[i + 1] : "0";
+
+			try {
+				switch (tokens[i]) {
+
+				case "depth":
+					depth = Math.max(1, Integer.parseInt(value));
+					i++;
+					break;
+				case "nodes":
+					nodes = Long.parseLong(value);
+					i++;
+					break;
+				case "movetime":
+					moveTime = Long.parseLong(value);
+					i++;
+					break;
+				case "wtime":
+					time[Color.WHITE.ordinal()] = Long.parseLong(value);
+					i++;
+					break;
+				case "btime":
+					time[Color.BLACK.ordinal()] = Long.parseLong(value);
+					i++;
+					break;
+				case "winc":
+					increment[Color.WHITE.ordinal()] = Long.parseLong(value);
+					i++;
+					break;
+				case "binc":
+					increment[Color.BLACK.ordinal()] = Long.parseLong(value);
+					i++;
+					break;
+				case "movestogo":
+					movesToGo = Integer.parseInt(value);
+					i++;
+					break;
+				case "infinite":
+				case "ponder":
+					infinite = true;
+					break;
+				}
+			} catch (NumberFormatException e) {
+				out.println("info string Invalid value for " + tokens[i]);
+				i++;
+			}
+		}
+
+		// A BOOK MOVE NEEDS NO SEARCH. AN INFINITE SEARCH MAY ONLY ANSWER AFTER "stop", SO IT
+		// ALWAYS SEARCHES
+		if (ownBook && book != null && !infinite) {
+			int move = book.move(match, random);
+
+			if (move != Move.NONE) {
+				out.println("info string book move");
+				out.println("bestmove " + Move.toString(move));
+				return;
+			}
+		}
+
+		// A SHARE OF THE CLOCK: THE TIME LEFT SPLIT OVER THE MOVES STILL TO PLAY, PLUS MOST OF
+		// THE INCREMENT, BUT NEVER CLOSER TO ZERO THAN THE OVERHEAD
+		int side = match.getCurrentPlayer().ordinal();
+		if (moveTime == 0L && time[side] > 0L && !infinite) {
+			long left = time[side];
+			long share = left / ((movesToGo > 0) ? movesToGo : DEFAULT_MOVES_TO_GO) + increment[side] * 3 / 4;
+			moveTime = Math.max(1L, Math.min(share, left - MOVE_OVERHEAD));
+		}
+
+		SearchLimits limits = new SearchLimits(depth, Math.max(nodes, 0L), infinite ? 0L : Math.max(moveTime, 0L));
+		CountDownLatch signal = new CountDownLatch(infinite ? 1 : 0);
+		stopSignal = signal;
+
+		// STARTED HERE, NOT ON THE SEARCH THREAD, SO A "stop" RIGHT AFTER "go" ALWAYS REACHES IT
+		CompletableFuture<SearchResult> future = search.start(match, limits);
+
+		running = searchThread.submit(() -> {
+			SearchResult result = future.join();
+
+			// AN INFINITE SEARCH ONLY ANSWERS AFTER "stop", EVEN IF IT HAS NOTHING LEFT TO SEARCH
+			try {
+				signal.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+
+			out.println("info " + result);
+			out.println("bestmove " + ((result.getBestMove() == Move.NONE) ? "0000" : Move.toString(result.getBestMove())));
+		});
+	}
+
+	private void stop() {
+		stopSignal.countDown();
+		search.stop();
+	}
+
+	private void waitForSearch() {
+		if (running == null) {
+			return;
+		}
+
+		try {
+			running.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			out.println("info string Search failed: " + e.getCause());
+		}
+		running = null;
+	}
+}
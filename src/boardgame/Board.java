@@ -4,18 +4,44 @@ public class Board {
 
 	private int rows;
 	private int columns;
-	private Piece[][] pieces;
+	private int kinds;
+	private Piece[] pieces;
 
-	public Board(int rows, int columns) {
+	// ONE SHARED Position PER SQUARE, SO MOVING A PIECE DOES NOT ALLOCATE
+	private Position[] positions;
+
+	// ONE BITBOARD PER (SIDE, KIND) PLUS ONE OCCUPANCY MASK PER SIDE.
+	// BIT "row * columns + column" IS SET WHEN THAT SQUARE HOLDS A PIECE.
+	private long[] bitboards;
+	private long[] sideOccupancy;
+	private long occupied;
+
+	public Board(int rows, int columns, int sides, int kinds) {
 
 		if (rows < 1 || columns < 1) {
 			throw new BoardException("Error creating board. There must be at least one row and one column!");
 		}
 
+		if (rows * columns > Long.SIZE) {
+			throw new BoardException("Error creating board. A bitboard holds at most " + Long.SIZE + " squares!");
+		}
+
+		if (sides < 1 || kinds < 1) {
+			throw new BoardException("Error creating board. There must be at least one side and one kind of piece!");
+		}
+
 		this.rows = rows;
 		this.columns = columns;
+		this.kinds = kinds;
 
-		pieces = new Piece[rows][columns];
+		pieces = new Piece[rows * columns];
+		positions = new Position[rows * columns];
+
+		for (int square = 0; square < positions.length; square++) {
+			positions[square] = new Position(square / columns, square % columns);
+		}
+		bitboards = new long[sides * kinds];
+		sideOccupancy = new long[sides];
 	}
 
 	public int getRows() {
@@ -30,39 +56,69 @@ public class Board {
 		if (!positionExists(row, column)) {
 			throw new BoardException("Position not on the board!");
 		}
-		return pieces[row][column];
+		return pieces[square(row, column)];
 	}
 
 	public Piece piece(Position position) {
 		if (!positionExists(position)) {
 			throw new BoardException("Position not on the board!");
 		}
-		return pieces[position.getRow()][position.getColumn()];
+		return pieces[square(position.getRow(), position.getColumn())];
+	}
+
+	// UNCHECKED ACCESS FOR CALLERS THAT ALREADY HOLD A VALID SQUARE INDEX (E.G. A SET BIT)
+	public Piece piece(int square) {
+		return pieces[square];
 	}
 
 	public void placePiece(Piece piece, Position position) {
-		
-		if (hasPiece(position)) {
-			throw new BoardException("There is already a piece on that position " + position);
+		if (!positionExists(position)) {
+			throw new BoardException("Position not on the board!");
+		}
+		placePiece(piece, square(position.getRow(), position.getColumn()));
+	}
+
+	public void placePiece(Piece piece, int square) {
+
+		if (pieces[square] != null) {
+			throw new BoardException("There is already a piece on that position " + positions[square]);
 		}
-		
-		pieces[position.getRow()][position.getColumn()] = piece;
-		piece.position = position;
+
+		long bit = 1L << square;
+
+		pieces[square] = piece;
+		bitboards[piece.getSide() * kinds + piece.getKind()] |= bit;
+		sideOccupancy[piece.getSide()] |= bit;
+		occupied |= bit;
+
+		piece.position = positions[square];
+		piece.square = square;
 	}
-	
+
 	public Piece removePiece(Position position) {
 		if (!positionExists(position)) {
-			throw new BoardException("Position not on the board!"); 
+			throw new BoardException("Position not on the board!");
 		}
-		
-		if (piece(position) == null) {
+		return removePiece(square(position.getRow(), position.getColumn()));
+	}
+
+	public Piece removePiece(int square) {
+		Piece aux = pieces[square];
+
+		if (aux == null) {
 			return null;
 		}
-		
-		Piece aux = piece(position);
+
+		long bit = 1L << square;
+
+		bitboards[aux.getSide() * kinds + aux.getKind()] &= ~bit;
+		sideOccupancy[aux.getSide()] &= ~bit;
+		occupied &= ~bit;
+		pieces[square] = null;
+
 		aux.position = null;
-		pieces[position.getRow()][position.getColumn()] = null;
-		
+		aux.square = -1;
+
 		return aux;
 	}
 
@@ -74,10 +130,41 @@ public class Board {
 		if (!positionExists(position)) {
 			throw new BoardException("Position not on the board!");
 		}
-		return piece(position) != null;
+		return (occupied & (1L << square(position.getRow(), position.getColumn()))) != 0L;
 	}
 
-	private boolean positionExists(int row, int column) {
+	public boolean positionExists(int row, int column) {
 		return row >= 0 && row < rows && column >= 0 && column < columns;
 	}
-}
\ No newline at end of file
+
+	public int square(int row, int column) {
+		return row * columns + column;
+	}
+
+	public int square(Position position) {
+		return square(position.getRow(), position.getColumn());
+	}
+
+	public long getOccupied() {
+		return occupied;
+	}
+
+	public long getOccupied(int side) {
+		return sideOccupancy[side];
+	}
+
+	public long getBitboard(int side, int kind) {
+		return bitboards[side * kinds + kind];
+	}
+
+	public boolean[][] toMatrix(long bitboard) {
+		boolean[][] matrix = new boolean[rows][columns];
+
+		while (bitboard != 0L) {
+			int square = Long.numberOfTrailingZeros(bitboard);
+			matrix[square / columns][square % columns] = true;
+			bitboard &= bitboard - 1;
+		}
+		return matrix;
+	}
+}
@@ -3,36 +3,43 @@ package boardgame;
 public abstract class Piece {
 
 	protected Position position;
-	
+	protected int square;
+
 	private Board board;
 
 	public Piece(Board board) {
 		this.board = board;
 		position = null;
+		square = -1;
 	}
 
-	
+
 	protected Board getBoard() {
 		return board;
 	}
-	
-	public abstract boolean[][] possibleMoves();
-	
+
+	public int getSquare() {
+		return square;
+	}
+
+	// INDEX OF THE OCCUPANCY MASK THIS PIECE IS COUNTED IN
+	public abstract int getSide();
+
+	// INDEX OF THE BITBOARD (WITHIN ITS SIDE) THIS PIECE IS COUNTED IN
+	public abstract int getKind();
+
+	// BIT "square" IS SET FOR EVERY SQUARE THIS PIECE CAN MOVE TO
+	public abstract long possibleMovesBitboard();
+
+	public boolean[][] possibleMoves() {
+		return board.toMatrix(possibleMovesBitboard());
+	}
+
 	public boolean possibleMove(Position position) {
-		return possibleMoves()[position.getRow()][position.getColumn()];
+		return (possibleMovesBitboard() & (1L << board.square(position))) != 0L;
 	}
-	
+
 	public boolean isAnyMovePossible() {
-		
-		boolean[][] matrix = possibleMoves();
-		
-		for (int i =0; i < matrix.length; i++) {
-			for (int j = 0; j< matrix.length; j++) {
-				if(matrix[i][j]) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return possibleMovesBitboard() != 0L;
 	}
 }
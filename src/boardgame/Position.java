@@ -1,9 +1,10 @@
 package boardgame;
 
-public class Position {
+// IMMUTABLE, SO Board CAN SHARE ONE INSTANCE PER SQUARE AMONG ALL THE PIECES PLACED THERE
+public final class Position {
 
-	private int row;
-	private int column;
+	private final int row;
+	private final int column;
 	
 	public Position(int row, int column) {
 		this.row = row;
@@ -14,23 +15,10 @@ public class Position {
 		return row;
 	}
 
-	public void setRow(int row) {
-		this.row = row;
-	}
-
 	public int getColumn() {
 		return column;
 	}
 
-	public void setColumn(int column) {
-		this.column = column;
-	}
-	
-	public void setValues(int row, int column) {
-		this.row = row;
-		this.column = column;
-	}
-
 	@Override
 	public String toString() {
 		return row + ", " + column;
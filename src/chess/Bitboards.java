@@ -0,0 +1,271 @@
+package chess;
+
+// SQUARE INDEXES FOLLOW boardgame.Board: square = row * 8 + column, SO a8 IS 0 AND h1 IS 63.
+// MOVING "UP" THE BOARD (TOWARDS ROW 0) IS A RIGHT SHIFT BY 8.
+public final class Bitboards {
+
+	public static final long FILE_A = 0x0101010101010101L;
+	public static final long FILE_B = FILE_A << 1;
+	public static final long FILE_G = FILE_A << 6;
+	public static final long FILE_H = FILE_A << 7;
+	public static final long RANK_8 = 0xFFL;
+	public static final long RANK_1 = RANK_8 << 56;
+
+	// BETWEEN[a * 64 + b]: SQUARES STRICTLY BETWEEN a AND b WHEN THEY SHARE A RANK, FILE OR
+	// DIAGONAL. LINE[a * 64 + b]: THE WHOLE LINE THROUGH BOTH, EDGE TO EDGE. 0 OTHERWISE
+	private static final long[] BETWEEN = new long[64 * 64];
+	private static final long[] LINE = new long[64 * 64];
+
+	// ATTACKS OF THE PIECES THAT JUMP, BY SQUARE. PAWN_ATTACKS IS INDEXED BY
+	// Color.ordinal() * 64 + square
+	private static final long[] KNIGHT_ATTACKS = new long[64];
+	private static final long[] KING_ATTACKS = new long[64];
+	private static final long[] PAWN_ATTACKS = new long[2 * 64];
+
+	// MAGIC BITBOARDS FOR THE SLIDERS. FOR EACH SQUARE, THE OCCUPANCY OF THE SQUARES THAT CAN
+	// BLOCK A RAY (THE MASK, BOARD EDGES LEFT OUT) IS MULTIPLIED BY A MAGIC NUMBER AND SHIFTED
+	// DOWN TO AN INDEX INTO THAT SQUARE'S SLICE OF THE ATTACK TABLE
+	private static final Magic[] ROOK_MAGICS = new Magic[64];
+	private static final Magic[] BISHOP_MAGICS = new Magic[64];
+
+	// MAGIC NUMBERS FOUND BY findMagic WITH THE SEED BELOW. STARTING FROM THEM SAVES THE SEARCH
+	// AT STARTUP; THE TABLES ARE STILL FILLED (AND THE NUMBERS CHECKED) WHEN THE CLASS LOADS
+	private static final long[] ROOK_MAGIC_NUMBERS = {
+			0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+			0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+			0x0000800080204001L, 0x1000804000802001L, 0x8240801000200080L, 0x8611001004200900L,
+			0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+			0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+			0x0001818014000800L, 0xA002010100080400L, 0x0008040088020130L, 0x0001020004048845L,
+			0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+			0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+			0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+			0x4540040080800800L, 0x0000800400800200L, 0x9281800100808200L, 0x8004048102000854L,
+			0x4420802040008006L, 0x0880500020004002L, 0x0801200241050010L, 0x8400080010008080L,
+			0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+			0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+			0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+			0x8044110480002441L, 0x1023012082044112L, 0x00804080200A0012L, 0x000420310A004A42L,
+			0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L };
+
+	private static final long[] BISHOP_MAGIC_NUMBERS = {
+			0x1010220204082A00L, 0x80E0020202002804L, 0x2008480104200020L, 0x000220920280002DL,
+			0x32040421000B0284L, 0x1002080404000400L, 0x0004160892080040L, 0x2203024206204201L,
+			0x0002404264010200L, 0x1120908408428124L, 0xB100424403002280L, 0x240008060440C288L,
+			0x2040040420490400L, 0x0100620210040022L, 0x0400084104202028L, 0x0010050080908820L,
+			0x0C90A04490824802L, 0x000200A008210130L, 0x0C08001000204010L, 0x0008000186014480L,
+			0x0601044820080021L, 0x0002000101013100L, 0x1400A08108080204L, 0x0250401104485410L,
+			0x4820240810142843L, 0x0009142A20182200L, 0x0848140048440020L, 0x2020120000400440L,
+			0x0108840200802003L, 0x0009070082009492L, 0x020C0C0038424245L, 0xCA44005808210410L,
+			0x8011212000500404L, 0x2028840510101008L, 0x0004042A00041400L, 0x0624020080980080L,
+			0x1820410040840040L, 0x2201004202050100L, 0x402A088A24040224L, 0x0242061040002400L,
+			0x90020202400821A0L, 0x00C9009004E01002L, 0x58C2060202023100L, 0x0000012214040800L,
+			0x0210846810100200L, 0x0004208081010200L, 0x01A4108404442100L, 0x8054082C80280106L,
+			0x0004144904104208L, 0x00324C0A11104000L, 0x1000020231040100L, 0x2080001042020004L,
+			0x0544021020288104L, 0x1103501408083020L, 0x4010451004960002L, 0x003010091C44902CL,
+			0x0102402884202000L, 0x0480804C00841086L, 0x04602C8602210400L, 0x0000004000420200L,
+			0x0040000020442C18L, 0x4483804089094100L, 0x80000B0248020400L, 0x0045010808008680L };
+
+	static {
+		int[][] directions = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }, { -1, -1 }, { -1, 1 }, { 1, -1 }, { 1, 1 } };
+
+		for (int from = 0; from < 64; from++) {
+			for (int[] d : directions) {
+				long full = slide(from, 0L, d[0], d[1]) | slide(from, 0L, -d[0], -d[1]) | bit(from);
+				long between = 0L;
+				int row = (from >>> 3) + d[0];
+				int column = (from & 7) + d[1];
+
+				while (row >= 0 && row < 8 && column >= 0 && column < 8) {
+					int to = row * 8 + column;
+					BETWEEN[from * 64 + to] = between;
+					LINE[from * 64 + to] = full;
+
+					between |= bit(to);
+					row += d[0];
+					column += d[1];
+				}
+			}
+		}
+
+		for (int square = 0; square < 64; square++) {
+			long b = 1L << square;
+
+			KNIGHT_ATTACKS[square] = ((b >>> 10) & ~(FILE_G | FILE_H))
+					| ((b >>> 17) & ~FILE_H)
+					| ((b >>> 15) & ~FILE_A)
+					| ((b >>> 6) & ~(FILE_A | FILE_B))
+					| ((b << 10) & ~(FILE_A | FILE_B))
+					| ((b << 17) & ~FILE_A)
+					| ((b << 15) & ~FILE_H)
+					| ((b << 6) & ~(FILE_G | FILE_H));
+
+			long sides = ((b >>> 1) & ~FILE_H) | ((b << 1) & ~FILE_A);
+			long row = b | sides;
+			KING_ATTACKS[square] = sides | (row >>> 8) | (row << 8);
+
+			PAWN_ATTACKS[Color.WHITE.ordinal() * 64 + square] = ((b >>> 9) & ~FILE_H) | ((b >>> 7) & ~FILE_A);
+			PAWN_ATTACKS[Color.BLACK.ordinal() * 64 + square] = ((b << 7) & ~FILE_H) | ((b << 9) & ~FILE_A);
+		}
+
+		// FIXED SEED, SO THE SAME MAGICS ARE FOUND ON EVERY RUN
+		long[] seed = { 0x2545F4914F6CDD1DL };
+
+		for (int square = 0; square < 64; square++) {
+			long rookMask = (slide(square, 0L, -1, 0) & ~RANK_8) | (slide(square, 0L, 1, 0) & ~RANK_1)
+					| (slide(square, 0L, 0, -1) & ~FILE_A) | (slide(square, 0L, 0, 1) & ~FILE_H);
+			long bishopMask = slowBishopAttacks(square, 0L) & ~(RANK_8 | RANK_1 | FILE_A | FILE_H);
+
+			ROOK_MAGICS[square] = findMagic(square, rookMask, true, ROOK_MAGIC_NUMBERS[square], seed);
+			BISHOP_MAGICS[square] = findMagic(square, bishopMask, false, BISHOP_MAGIC_NUMBERS[square], seed);
+		}
+	}
+
+	private Bitboards() {
+	}
+
+	public static long between(int from, int to) {
+		return BETWEEN[from * 64 + to];
+	}
+
+	public static long line(int from, int to) {
+		return LINE[from * 64 + to];
+	}
+
+	public static long bit(int square) {
+		return 1L << square;
+	}
+
+	public static long knightAttacks(int square) {
+		return KNIGHT_ATTACKS[square];
+	}
+
+	public static long kingAttacks(int square) {
+		return KING_ATTACKS[square];
+	}
+
+	// SQUARES A PAWN OF THE GIVEN COLOR STANDING ON "square" ATTACKS DIAGONALLY
+	public static long pawnAttacks(Color color, int square) {
+		return PAWN_ATTACKS[color.ordinal() * 64 + square];
+	}
+
+	public static long rookAttacks(int square, long occupied) {
+		return ROOK_MAGICS[square].attacks(occupied);
+	}
+
+	public static long bishopAttacks(int square, long occupied) {
+		return BISHOP_MAGICS[square].attacks(occupied);
+	}
+
+	public static long queenAttacks(int square, long occupied) {
+		return ROOK_MAGICS[square].attacks(occupied) | BISHOP_MAGICS[square].attacks(occupied);
+	}
+
+	// RAY-WALKING VERSIONS, ONLY USED TO FILL THE TABLES
+	private static long slowRookAttacks(int square, long occupied) {
+		// look above, left, right and down
+		return slide(square, occupied, -1, 0)
+				| slide(square, occupied, 0, -1)
+				| slide(square, occupied, 0, 1)
+				| slide(square, occupied, 1, 0);
+	}
+
+	private static long slowBishopAttacks(int square, long occupied) {
+		// look nw, ne, sw and se
+		return slide(square, occupied, -1, -1)
+				| slide(square, occupied, -1, 1)
+				| slide(square, occupied, 1, 1)
+				| slide(square, occupied, 1, -1);
+	}
+
+	// TRIES "candidate", THEN SPARSE RANDOM NUMBERS, UNTIL ONE MAPS EVERY BLOCKER SUBSET OF THE
+	// MASK TO AN INDEX WITHOUT TWO SUBSETS WITH DIFFERENT ATTACKS SHARING IT
+	private static Magic findMagic(int square, long mask, boolean rook, long candidate, long[] seed) {
+		int bits = Long.bitCount(mask);
+		int size = 1 << bits;
+		long[] occupancies = new long[size];
+		long[] attacks = new long[size];
+
+		// WALK EVERY SUBSET OF THE MASK (CARRY-RIPPLER)
+		long subset = 0L;
+		for (int i = 0; i < size; i++) {
+			occupancies[i] = subset;
+			attacks[i] = rook ? slowRookAttacks(square, subset) : slowBishopAttacks(square, subset);
+			subset = (subset - mask) & mask;
+		}
+
+		long[] table = new long[size];
+		int[] used = new int[size];
+		int shift = 64 - bits;
+
+		for (int attempt = 1;; attempt++) {
+			long magic = (attempt == 1) ? candidate : random(seed) & random(seed) & random(seed);
+
+			if (Long.bitCount((mask * magic) >>> 56) < 6) {
+				continue;
+			}
+
+			boolean found = true;
+			for (int i = 0; i < size && found; i++) {
+				int index = (int) ((occupancies[i] * magic) >>> shift);
+
+				if (used[index] != attempt) {
+					used[index] = attempt;
+					table[index] = attacks[i];
+				} else if (table[index] != attacks[i]) {
+					found = false;
+				}
+			}
+
+			if (found) {
+				return new Magic(mask, magic, shift, table);
+			}
+		}
+	}
+
+	// XORSHIFT64*
+	private static long random(long[] seed) {
+		seed[0] ^= seed[0] >>> 12;
+		seed[0] ^= seed[0] << 25;
+		seed[0] ^= seed[0] >>> 27;
+		return seed[0] * 0x2545F4914F6CDD1DL;
+	}
+
+	// WALKS ONE RAY UNTIL THE EDGE OF THE BOARD OR THE FIRST OCCUPIED SQUARE (WHICH IS INCLUDED)
+	private static long slide(int square, long occupied, int rowStep, int columnStep) {
+		long attacks = 0L;
+		int row = (square >>> 3) + rowStep;
+		int column = (square & 7) + columnStep;
+
+		while (row >= 0 && row < 8 && column >= 0 && column < 8) {
+			long b = 1L << (row * 8 + column);
+			attacks |= b;
+
+			if ((occupied & b) != 0L) {
+				break;
+			}
+			row += rowStep;
+			column += columnStep;
+		}
+		return attacks;
+	}
+
+	private static final class Magic {
+
+		private final long mask;
+		private final long magic;
+		private final int shift;
+		private final long[] attacks;
+
+		Magic(long mask, long magic, int shift, long[] attacks) {
+			this.mask = mask;
+			this.magic = magic;
+			this.shift = shift;
+			this.attacks = attacks;
+		}
+
+		long attacks(long occupied) {
+			return attacks[(int) (((occupied & mask) * magic) >>> shift)];
+		}
+	}
+}
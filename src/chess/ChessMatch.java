@@ -1,8 +1,8 @@
 package chess;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import boardgame.Board;
 import boardgame.Piece;
@@ -13,25 +13,382 @@ import chess.pieces.Knight;
 import chess.pieces.Pawn;
 import chess.pieces.Queen;
 import chess.pieces.Rook;
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
 
 public class ChessMatch {
 
+	public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	private static final String FEN_PIECES = "pnbrqk";
+
+	// HOT-PATH PROBES, FREE WHILE METRICS ARE OFF (SEE MetricsRegistry). performChessMove IS TIMED
+	// AS A WHOLE AND ITS MATE DETECTION ON ITS OWN, SO A SLOW MOVE CAN BE TOLD APART FROM A SLOW
+	// testCheckMate
+	private static final Counter POSSIBLE_MOVES = MetricsRegistry.counter("possibleMoves");
+	private static final Counter TEST_CHECK = MetricsRegistry.counter("testCheck");
+	private static final Counter MAKE_MOVE = MetricsRegistry.counter("makeMove");
+	private static final Counter UNDO_MOVE = MetricsRegistry.counter("undoMove");
+	private static final Counter REJECTED_MOVES = MetricsRegistry.counter("rejectedMoves");
+	private static final Counter TEST_CHECK_MATE_CALLS = MetricsRegistry.counter("testCheckMate");
+	private static final LatencyHistogram PERFORM_CHESS_MOVE = MetricsRegistry.histogram("performChessMove");
+	private static final LatencyHistogram TEST_CHECK_MATE = MetricsRegistry.histogram("testCheckMate");
+
 	private int turn;
 	private Color currentPlayer;
 	private Board board;
 	private boolean check;
 	private boolean checkMate;
+	private boolean drawClaimed;
 	private ChessPiece enPassantVulnerable;
 	private ChessPiece promoted;
+	private long zobristKey;
+
+	// MATERIAL AND PIECE-SQUARE SCORES FROM WHITE'S SIDE, AND THE GAME PHASE, SUMMED OVER THE
+	// PIECES ON THE BOARD (SEE PieceSquare). LIKE THE ZOBRIST KEY, THEY FOLLOW EVERY PIECE
+	private int middlegameScore;
+	private int endgameScore;
+	private int phase;
 
 	private List<ChessPiece> capturedPieces = new ArrayList<>();
-	private List<ChessPiece> piecesOnBoard = new ArrayList<>();
+
+	// PIECES ON THE BOARD, INDEXED BY COLOR. EACH PIECE KNOWS ITS SLOT, SO REMOVAL SWAPS THE LAST
+	// PIECE INTO THE HOLE, AND undoMove PUTS PIECES BACK INTO THE SAME SLOTS IN REVERSE ORDER
+	private ChessPiece[][] piecesOnBoard = new ChessPiece[2][16];
+	private int[] pieceCounts = new int[2];
+	private int[] kingSquares = { -1, -1 };
+
+	private LegalMoves legalMoves;
+	private Tablebase tablebase;
+
+	// STATE makeMove CANNOT RECOMPUTE ON UNDO, ONE ENTRY PER MOVE ON THE BOARD
+	private List<ChessPiece> enPassantHistory = new ArrayList<>();
+	private List<ChessPiece> promotionHistory = new ArrayList<>();
+	private int[] clockHistory = new int[256];
+	private int halfMoveClock;
+
+	// ZOBRIST KEYS OF THE POSITIONS BEFORE EACH MOVE ON THE BOARD, GAME AND SEARCH ALIKE, FOR
+	// REPETITIONS. A COPY ONLY TAKES THE KEYS SINCE THE LAST CAPTURE OR PAWN MOVE, THE ONLY ONES
+	// A REPETITION CAN MATCH
+	private long[] keyHistory = new long[256];
+	private int keyCount;
+
+	// MOVES OF THE GAME ITSELF (performChessMove AND playMove, NOT THE SEARCH), OLDEST FIRST, AS
+	// 16-BIT Move VALUES, WITH THE PIECE EACH ONE CAPTURED. CASTLING RIGHTS, THE EN PASSANT PAWN
+	// AND THE HALFMOVE CLOCK ARE KEPT BY makeMove'S OWN STACKS ABOVE, SO undo() IS ONE undoMove.
+	// THE ENTRIES FROM historySize TO redoSize WERE UNDONE AND CAN BE REPLAYED UNTIL A NEW MOVE
+	// IS PLAYED
+	private short[] moveHistory = new short[128];
+	private ChessPiece[] capturedHistory = new ChessPiece[128];
+	private int historySize;
+	private int redoSize;
+	private String initialFen = START_FEN;
 
 	public ChessMatch() {
-		board = new Board(8, 8);
+		board = new Board(8, 8, Color.values().length, ChessPiece.KINDS);
+		legalMoves = new LegalMoves(this);
 		turn = 1;
 		currentPlayer = Color.WHITE;
 		initialSetup();
+		zobristKey ^= Zobrist.castling(castlingRights());
+	}
+
+	// INDEPENDENT COPY OF THE CURRENT POSITION OF "other", FOR A THREAD THAT NEEDS ITS OWN
+	// ChessMatch. THE COPY STARTS FROM THAT POSITION, WITH NO MOVES TO UNDO
+	public ChessMatch(ChessMatch other) {
+		board = new Board(8, 8, Color.values().length, ChessPiece.KINDS);
+		legalMoves = new LegalMoves(this);
+		turn = other.turn;
+		currentPlayer = other.currentPlayer;
+		check = other.check;
+		checkMate = other.checkMate;
+		drawClaimed = other.drawClaimed;
+
+		for (ChessPiece p : other.piecesOf(Color.WHITE, Color.BLACK)) {
+			ChessPiece copy = newPiece(p.getKind(), p.getColor());
+			copy.setMoveCount(p.getMoveCount());
+			placePiece(copy, p.getSquare());
+			addPiece(copy);
+
+			if (p == other.enPassantVulnerable) {
+				enPassantVulnerable = copy;
+			}
+			if (p == other.promoted) {
+				promoted = copy;
+			}
+		}
+
+		for (ChessPiece p : other.capturedPieces) {
+			capturedPieces.add(newPiece(p.getKind(), p.getColor()));
+		}
+
+		zobristKey = other.zobristKey;
+		tablebase = other.tablebase;
+		halfMoveClock = other.halfMoveClock;
+		initialFen = toFen();
+
+		keyCount = Math.min(other.halfMoveClock, other.keyCount);
+		keyHistory = Arrays.copyOf(keyHistory, Math.max(keyHistory.length, keyCount * 2));
+		System.arraycopy(other.keyHistory, other.keyCount - keyCount, keyHistory, 0, keyCount);
+	}
+
+	// BUILDS THE POSITION OF A FEN STRING: PIECE PLACEMENT, SIDE TO MOVE, CASTLING RIGHTS, EN
+	// PASSANT SQUARE, HALFMOVE CLOCK AND MOVE NUMBER. AN EPD LINE IS READ THE SAME WAY: THE TWO
+	// COUNTERS MAY BE MISSING, AND THE EPD OPERATIONS AFTER THE FOURTH FIELD ARE IGNORED.
+	// THE STRING IS SCANNED ONE CHARACTER AT A TIME, SO THE PIECES ARE THE ONLY OBJECTS CREATED
+	public ChessMatch(String fen) {
+		board = new Board(8, 8, Color.values().length, ChessPiece.KINDS);
+		legalMoves = new LegalMoves(this);
+
+		// ## -- PIECE PLACEMENT, FROM a8 TO h1 -- ##
+		int i = skipSpaces(fen, 0);
+		int row = 0;
+		int column = 0;
+
+		for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+			char c = fen.charAt(i);
+
+			if (c == '/') {
+				if (column != 8 || ++row > 7) {
+					throw invalidFen(fen);
+				}
+				column = 0;
+			} else if (c >= '1' && c <= '8') {
+				column += c - '0';
+			} else {
+				int kind = FEN_PIECES.indexOf(Character.toLowerCase(c));
+				Color color = Character.isUpperCase(c) ? Color.WHITE : Color.BLACK;
+
+				if (kind < 0 || column > 7 || pieceCounts[color.ordinal()] == 16) {
+					throw invalidFen(fen);
+				}
+
+				ChessPiece piece = newPiece(kind, color);
+				placePiece(piece, row * 8 + column);
+				addPiece(piece);
+				column++;
+			}
+
+			if (column > 8) {
+				throw invalidFen(fen);
+			}
+		}
+
+		if (row != 7 || column != 8 || Long.bitCount(board.getBitboard(Color.WHITE.ordinal(), ChessPiece.KING)) != 1
+				|| Long.bitCount(board.getBitboard(Color.BLACK.ordinal(), ChessPiece.KING)) != 1) {
+			throw invalidFen(fen);
+		}
+
+		// ## -- SIDE TO MOVE -- ##
+		i = skipSpaces(fen, i);
+		if (fen.startsWith("w", i)) {
+			currentPlayer = Color.WHITE;
+		} else if (fen.startsWith("b", i)) {
+			currentPlayer = Color.BLACK;
+		} else {
+			throw invalidFen(fen);
+		}
+
+		// ## -- CASTLING RIGHTS -- ##
+		i = skipSpaces(fen, i + 1);
+		int rights = 0;
+
+		if (fen.startsWith("-", i)) {
+			i++;
+		} else {
+			for (; i < fen.length() && fen.charAt(i) != ' '; i++) {
+				int right = "KQkq".indexOf(fen.charAt(i));
+
+				if (right < 0) {
+					throw invalidFen(fen);
+				}
+				rights |= 1 << right;
+			}
+		}
+
+		// ## -- EN PASSANT SQUARE -- ##
+		i = skipSpaces(fen, i);
+		int enPassantSquare = -1;
+
+		if (fen.startsWith("-", i)) {
+			i++;
+		} else if (i + 1 < fen.length()) {
+			int targetColumn = fen.charAt(i) - 'a';
+			int targetRow = '8' - fen.charAt(i + 1);
+
+			if (targetColumn < 0 || targetColumn > 7 || targetRow != ((currentPlayer == Color.WHITE) ? 2 : 5)) {
+				throw invalidFen(fen);
+			}
+			enPassantSquare = targetRow * 8 + targetColumn;
+			i += 2;
+		} else {
+			throw invalidFen(fen);
+		}
+
+		// ## -- HALFMOVE CLOCK AND MOVE NUMBER, WHEN PRESENT -- ##
+		i = skipSpaces(fen, i);
+		int fullMoves = 1;
+
+		if (i < fen.length() && Character.isDigit(fen.charAt(i))) {
+			int end = fieldEnd(fen, i);
+			halfMoveClock = Integer.parseInt(fen, i, end, 10);
+
+			i = skipSpaces(fen, end);
+			if (i < fen.length() && Character.isDigit(fen.charAt(i))) {
+				fullMoves = Math.max(Integer.parseInt(fen, i, fieldEnd(fen, i), 10), 1);
+			}
+		}
+
+		turn = 2 * fullMoves - ((currentPlayer == Color.WHITE) ? 1 : 0);
+
+		// CASTLING RIGHTS AND DOUBLE PAWN STEPS ARE DERIVED FROM THE MOVE COUNT, SO
+		// EVERY PIECE THAT HAS LOST THEM IS MARKED AS ALREADY MOVED
+		for (int side = 0; side < 2; side++) {
+			for (int index = 0; index < pieceCounts[side]; index++) {
+				ChessPiece p = piecesOnBoard[side][index];
+				int r = p.getSquare() / 8;
+				int c = p.getSquare() % 8;
+				boolean white = p.getColor() == Color.WHITE;
+				int kingSide = white ? Zobrist.WHITE_KING_SIDE : Zobrist.BLACK_KING_SIDE;
+				int queenSide = white ? Zobrist.WHITE_QUEEN_SIDE : Zobrist.BLACK_QUEEN_SIDE;
+				boolean moved;
+
+				if (p.getKind() == ChessPiece.PAWN) {
+					moved = r != (white ? 6 : 1);
+				} else if (p.getKind() == ChessPiece.KING) {
+					moved = r != (white ? 7 : 0) || c != 4 || (rights & (kingSide | queenSide)) == 0;
+				} else if (p.getKind() == ChessPiece.ROOK && r == (white ? 7 : 0) && (c == 0 || c == 7)) {
+					moved = (rights & ((c == 7) ? kingSide : queenSide)) == 0;
+				} else {
+					moved = false;
+				}
+
+				if (moved) {
+					p.increaseMoveCount();
+				}
+			}
+		}
+
+		if (enPassantSquare >= 0) {
+			int pawnSquare = (currentPlayer == Color.WHITE) ? enPassantSquare + 8 : enPassantSquare - 8;
+			ChessPiece pawn = (ChessPiece) board.piece(pawnSquare);
+
+			if (pawn == null || pawn.getKind() != ChessPiece.PAWN || pawn.getColor() == currentPlayer) {
+				throw invalidFen(fen);
+			}
+			enPassantVulnerable = pawn;
+		}
+
+		zobristKey ^= Zobrist.castling(castlingRights()) ^ enPassantKey();
+		if (currentPlayer == Color.BLACK) {
+			zobristKey ^= Zobrist.side();
+		}
+
+		check = testCheck(currentPlayer);
+		checkMate = check && testCheckMate(currentPlayer);
+
+		// A FINISHED MATCH KEEPS THE WINNER AS THE CURRENT PLAYER, AS performChessMove LEAVES IT
+		if (checkMate) {
+			currentPlayer = opponent(currentPlayer);
+			turn--;
+		}
+		initialFen = toFen();
+	}
+
+	private static int skipSpaces(String fen, int i) {
+		while (i < fen.length() && fen.charAt(i) == ' ') {
+			i++;
+		}
+		return i;
+	}
+
+	private static int fieldEnd(String fen, int i) {
+		while (i < fen.length() && fen.charAt(i) != ' ') {
+			i++;
+		}
+		return i;
+	}
+
+	private static ChessException invalidFen(String fen) {
+		return new ChessException("Invalid FEN: " + fen);
+	}
+
+	// THE CURRENT POSITION AS A FEN STRING. THE EN PASSANT SQUARE IS WRITTEN AFTER EVERY DOUBLE
+	// PAWN STEP, AS THE PGN STANDARD ASKS, EVEN WHEN NO PAWN CAN TAKE
+	public String toFen() {
+		StringBuilder sb = new StringBuilder(90);
+		appendEpd(sb);
+		sb.append(' ').append(halfMoveClock).append(' ').append((checkMate ? turn + 2 : turn + 1) / 2);
+		return sb.toString();
+	}
+
+	// THE FIRST FOUR FEN FIELDS, WHICH ARE WHAT AN EPD LINE STARTS WITH
+	public String toEpd() {
+		StringBuilder sb = new StringBuilder(80);
+		appendEpd(sb);
+		return sb.toString();
+	}
+
+	private void appendEpd(StringBuilder sb) {
+		for (int row = 0; row < 8; row++) {
+			int empty = 0;
+
+			for (int column = 0; column < 8; column++) {
+				ChessPiece p = (ChessPiece) board.piece(row * 8 + column);
+
+				if (p == null) {
+					empty++;
+					continue;
+				}
+				if (empty > 0) {
+					sb.append(empty);
+					empty = 0;
+				}
+
+				char letter = FEN_PIECES.charAt(p.getKind());
+				sb.append((p.getColor() == Color.WHITE) ? Character.toUpperCase(letter) : letter);
+			}
+
+			if (empty > 0) {
+				sb.append(empty);
+			}
+			if (row < 7) {
+				sb.append('/');
+			}
+		}
+
+		// AFTER A CHECKMATE THE MATED SIDE IS THE ONE TO MOVE
+		Color toMove = checkMate ? opponent(currentPlayer) : currentPlayer;
+		sb.append((toMove == Color.WHITE) ? " w " : " b ");
+
+		int rights = castlingRights();
+		if (rights == 0) {
+			sb.append('-');
+		}
+		for (int right = 0; right < 4; right++) {
+			if ((rights & (1 << right)) != 0) {
+				sb.append("KQkq".charAt(right));
+			}
+		}
+
+		sb.append(' ');
+		if (enPassantVulnerable == null) {
+			sb.append('-');
+		} else {
+			int square = enPassantVulnerable.getSquare();
+			sb.append(Move.squareName((enPassantVulnerable.getColor() == Color.WHITE) ? square + 8 : square - 8));
+		}
+	}
+
+	// THE POSITION THE MATCH STARTED FROM, WHICH getMoveHistory() IS PLAYED FROM
+	public String getInitialFen() {
+		return initialFen;
+	}
+
+	// HALF MOVES SINCE THE LAST CAPTURE OR PAWN MOVE OF THE GAME
+	public int getHalfMoveClock() {
+		return halfMoveClock;
 	}
 
 	public int getTurn() {
@@ -58,39 +415,123 @@ public class ChessMatch {
 		return promoted;
 	}
 
+	// 64-BIT ZOBRIST KEY OF THE CURRENT POSITION, KEPT UP TO DATE BY makeMove AND undoMove
+	public long getZobristKey() {
+		return zobristKey;
+	}
+
+	public int getMiddlegameScore() {
+		return middlegameScore;
+	}
+
+	public int getEndgameScore() {
+		return endgameScore;
+	}
+
+	public int getPhase() {
+		return phase;
+	}
+
+	public Tablebase getTablebase() {
+		return tablebase;
+	}
+
+	public void setTablebase(Tablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+
+	// EXACT OUTCOME OF THE CURRENT POSITION FOR THE SIDE TO MOVE (SEE Tablebase.outcome AND
+	// Tablebase.distance), OR Tablebase.UNKNOWN WHEN NO TABLE COVERS IT
+	public int probeTablebase() {
+		if (tablebase == null || checkMate) {
+			return Tablebase.UNKNOWN;
+		}
+		return tablebase.probe(this);
+	}
+
 	public boolean[][] possibleMoves(ChessPosition sourcePosition) {
 		Position position = sourcePosition.toPosition();
 		validateSourcePosition(position);
+		POSSIBLE_MOVES.increment();
 
-		return board.piece(position).possibleMoves();
+		legalMoves.compute(currentPlayer);
+		return board.toMatrix(legalMoves.targets((ChessPiece) board.piece(position)));
 	}
 
 	public ChessPiece performChessMove(ChessPosition sourcePosition, ChessPosition targetPosition) {
+		long start = PERFORM_CHESS_MOVE.start();
+
+		try {
+			return movePiece(sourcePosition, targetPosition);
+		} finally {
+			PERFORM_CHESS_MOVE.stop(start);
+		}
+	}
+
+	private ChessPiece movePiece(ChessPosition sourcePosition, ChessPosition targetPosition) {
 		Position source = sourcePosition.toPosition();
 		Position target = targetPosition.toPosition();
 
+		if (checkMate || drawClaimed) {
+			throw rejected("The match is over!");
+		}
+
 		validateSourcePosition(source);
 		validateTargetPosition(source, target);
-		Piece capturedPiece = makeMove(source, target);
+		Piece capturedPiece = makeMove(board.square(source), board.square(target), ChessPiece.QUEEN);
+
+		// ## -- Special Move - Promotion -- ##
+		promoted = null;
 
-		if (testCheck(currentPlayer)) {
-			undoMove(source, target, capturedPiece);
-			throw new ChessException("You can't put yourself in check!");
+		boolean promotion = promotionHistory.get(promotionHistory.size() - 1) != null;
+		if (promotion) {
+			promoted = (ChessPiece) board.piece(target);
 		}
 
-		ChessPiece movedPiece = (ChessPiece) board.piece(target);
+		recordMove(Move.encode(board.square(source), board.square(target), promotion ? ChessPiece.QUEEN : 0),
+				(ChessPiece) capturedPiece);
+		endMove();
 
-		// ## -- Special Move - Promotion -- ##
-		promoted = null;
+		return (ChessPiece) capturedPiece;
+	}
 
-		if (movedPiece instanceof Pawn) {
-			if (movedPiece.getColor() == Color.WHITE && target.getRow() == 0
-					|| movedPiece.getColor() == Color.BLACK && target.getRow() == 7) {
-				promoted = (ChessPiece) board.piece(target);
-				promoted = replacePromotedChessPiece("Q");
-			}
+	// PLAYS A LEGAL MOVE OF THE CURRENT PLAYER AND PASSES THE TURN, LIKE performChessMove. A PAWN
+	// REACHING THE LAST ROW BECOMES THE PIECE GIVEN BY Move.promotion, SO NOTHING IS LEFT TO
+	// replacePromotedChessPiece
+	public ChessPiece playMove(int move) {
+		if (checkMate || drawClaimed) {
+			throw rejected("The match is over!");
 		}
 
+		int source = Move.source(move);
+		int target = Move.target(move);
+		ChessPiece piece = (ChessPiece) board.piece(source);
+
+		if (piece == null || piece.getColor() != currentPlayer) {
+			throw rejected("There is no piece of the current player on " + Move.squareName(source) + "!");
+		}
+
+		legalMoves.compute(currentPlayer);
+		if ((legalMoves.targets(piece) & Bitboards.bit(target)) == 0L) {
+			throw rejected("Illegal move: " + Move.toString(move));
+		}
+
+		boolean promotes = piece.getKind() == ChessPiece.PAWN && (target < 8 || target >= 56);
+		int promotion = promotes ? Move.promotion(move) : 0;
+		if (promotes && (promotion < ChessPiece.KNIGHT || promotion > ChessPiece.QUEEN)) {
+			throw rejected("Missing promotion piece: " + Move.toString(move));
+		}
+
+		Piece capturedPiece = makeMove(source, target, promotion);
+		promoted = null;
+
+		recordMove(Move.encode(source, target, promotion), (ChessPiece) capturedPiece);
+		endMove();
+
+		return (ChessPiece) capturedPiece;
+	}
+
+	private void endMove() {
 		check = (testCheck(opponent(currentPlayer))) ? true : false;
 
 		if (testCheckMate(opponent(currentPlayer))) {
@@ -98,18 +539,139 @@ public class ChessMatch {
 		} else {
 			nextTurn();
 		}
+	}
 
-		// ## -- Special Move - En Passant -- ##
-		if (movedPiece instanceof Pawn && (target.getRow() == source.getRow() + 2)
-				|| (target.getRow() == source.getRow() - 2)) {
+	// A NEW MOVE ALSO DROPS THE MOVES THAT COULD STILL BE REDONE
+	private void recordMove(int move, ChessPiece capturedPiece) {
+		if (historySize == moveHistory.length) {
+			moveHistory = Arrays.copyOf(moveHistory, historySize * 2);
+			capturedHistory = Arrays.copyOf(capturedHistory, historySize * 2);
+		}
+		moveHistory[historySize] = (short) move;
+		capturedHistory[historySize] = capturedPiece;
+		historySize++;
+
+		for (int i = historySize; i < redoSize; i++) {
+			capturedHistory[i] = null;
+		}
+		redoSize = historySize;
+	}
+
+	// THE MOVES PLAYED SO FAR, OLDEST FIRST
+	public int[] getMoveHistory() {
+		int[] moves = new int[historySize];
+
+		for (int i = 0; i < historySize; i++) {
+			moves[i] = moveHistory[i] & 0xFFFF;
+		}
+		return moves;
+	}
+
+	// TRUE WHEN THE POSITION ALREADY OCCURRED, WITH THE SAME PLAYER TO MOVE, SINCE THE LAST
+	// CAPTURE OR PAWN MOVE. ONLY EVERY OTHER KEY CAN MATCH, AND A POSITION CANNOT COME BACK IN
+	// LESS THAN FOUR PLIES, SO THE SCAN IS SHORT ENOUGH FOR EVERY SEARCH NODE
+	public boolean isRepetition() {
+		int end = Math.max(keyCount - halfMoveClock, 0);
+
+		for (int i = keyCount - 4; i >= end; i -= 2) {
+			if (keyHistory[i] == zobristKey) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// THE THIRD OCCURRENCE OF THE POSITION
+	public boolean isThreefoldRepetition() {
+		int end = Math.max(keyCount - halfMoveClock, 0);
+		int repetitions = 0;
+
+		for (int i = keyCount - 4; i >= end; i -= 2) {
+			if (keyHistory[i] == zobristKey && ++repetitions == 2) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// 50 MOVES BY EACH PLAYER WITHOUT A CAPTURE OR A PAWN MOVE
+	public boolean isFiftyMoveRule() {
+		return halfMoveClock >= 100 && !checkMate;
+	}
 
-			enPassantVulnerable = movedPiece;
+	public boolean isStalemate() {
+		if (checkMate || check) {
+			return false;
+		}
+
+		legalMoves.compute(currentPlayer);
+		return !legalMoves.hasAnyMove();
+	}
+
+	// STALEMATE ENDS THE GAME AT ONCE
+	public boolean isAutomaticDraw() {
+		return isStalemate();
+	}
+
+	// A REPETITION OR FIFTY-MOVE DRAW ONLY ENDS THE GAME IF THE PLAYER TO MOVE CLAIMS IT
+	public boolean canClaimDraw() {
+		return !checkMate && !drawClaimed && (isFiftyMoveRule() || isThreefoldRepetition());
+	}
 
+	public void claimDraw() {
+		if (!canClaimDraw()) {
+			throw new ChessException("There is no draw to claim!");
+		}
+		drawClaimed = true;
+	}
+
+	// THE GAME ENDED IN A DRAW: STALEMATE, OR A DRAW THAT WAS CLAIMED
+	public boolean getDraw() {
+		return drawClaimed || isAutomaticDraw();
+	}
+
+	public boolean canUndo() {
+		return historySize > 0;
+	}
+
+	public boolean canRedo() {
+		return historySize < redoSize;
+	}
+
+	// TAKES BACK THE LAST MOVE OF THE GAME; IT CAN BE PLAYED AGAIN WITH redo()
+	public void undo() {
+		if (!canUndo()) {
+			throw new IllegalStateException("There are no moves to undo!");
+		}
+
+		historySize--;
+
+		// A CLAIMED DRAW IS TAKEN BACK WITH THE MOVE THAT ALLOWED IT
+		drawClaimed = false;
+
+		// A CHECKMATE KEPT THE TURN WITH THE WINNER
+		if (checkMate) {
+			checkMate = false;
 		} else {
-			enPassantVulnerable = null;
+			previousTurn();
 		}
 
-		return (ChessPiece) capturedPiece;
+		undoMove(moveHistory[historySize] & 0xFFFF, capturedHistory[historySize]);
+		promoted = null;
+		check = testCheck(currentPlayer);
+	}
+
+	// PLAYS AGAIN THE LAST MOVE TAKEN BACK BY undo()
+	public void redo() {
+		if (!canRedo()) {
+			throw new IllegalStateException("There are no moves to redo!");
+		}
+
+		int move = moveHistory[historySize] & 0xFFFF;
+		capturedHistory[historySize] = (ChessPiece) makeMove(move);
+		historySize++;
+		promoted = null;
+		endMove();
 	}
 
 	public ChessPiece replacePromotedChessPiece(String type) {
@@ -121,15 +683,18 @@ public class ChessMatch {
 			return promoted;
 		}
 
-		Position pos = promoted.getChessPosition().toPosition();
-		Piece p = board.removePiece(pos);
-		piecesOnBoard.remove(p);
+		int square = promoted.getSquare();
+		Piece p = removePiece(square);
+		dropPiece((ChessPiece) p);
 
 		ChessPiece newPiece = newPiece(type, promoted.getColor());
 		
-		board.placePiece(newPiece, pos);
+		placePiece(newPiece, square);
 		
-		piecesOnBoard.add(newPiece);
+		addPiece(newPiece);
+
+		int last = moveHistory[historySize - 1] & 0xFFFF;
+		moveHistory[historySize - 1] = (short) Move.encode(Move.source(last), Move.target(last), newPiece.getKind());
 		
 		return newPiece;
 
@@ -148,133 +713,341 @@ public class ChessMatch {
 		case "Q":
 			return new Queen(board, color);
 
+		case "K":
+			return new King(board, color, this);
+		case "P":
+			return new Pawn(board, color, this);
+
+		}
+
+		throw new IllegalStateException("Invalid type selected!");
+	}
+
+	private ChessPiece newPiece(int kind, Color color) {
+		switch (kind) {
+
+		case ChessPiece.BISHOP:
+			return new Bishop(board, color);
+		case ChessPiece.KNIGHT:
+			return new Knight(board, color);
+		case ChessPiece.ROOK:
+			return new Rook(board, color);
+		case ChessPiece.QUEEN:
+			return new Queen(board, color);
+		case ChessPiece.KING:
+			return new King(board, color, this);
+		case ChessPiece.PAWN:
+			return new Pawn(board, color, this);
+
 		}
 
 		throw new IllegalStateException("Invalid type selected!");
 	}
 
-	private Piece makeMove(Position sourcePosition, Position targetPosition) {
-		ChessPiece p = (ChessPiece) board.removePiece(sourcePosition);
+	// PLAYS A PSEUDO-LEGAL MOVE FOR ANY SIDE WITHOUT CHANGING THE TURN. PAWNS REACHING THE
+	// LAST ROW ARE PROMOTED TO "promotion" (A ChessPiece KIND). EVERY CALL MUST BE PAIRED WITH undoMove
+	Piece makeMove(int source, int target, int promotion) {
+		MAKE_MOVE.increment();
+		long previousState = Zobrist.castling(castlingRights()) ^ enPassantKey();
+
+		if (keyCount == keyHistory.length) {
+			keyHistory = Arrays.copyOf(keyHistory, keyCount * 2);
+		}
+		keyHistory[keyCount++] = zobristKey;
+
+		ChessPiece p = (ChessPiece) removePiece(source);
 		p.increaseMoveCount();
 
-		Piece capturedPiece = board.removePiece(targetPosition);
+		Piece capturedPiece = removePiece(target);
 
-		board.placePiece(p, targetPosition);
+		placePiece(p, target);
 
 		if (capturedPiece != null) {
-			piecesOnBoard.remove(capturedPiece);
+			dropPiece((ChessPiece) capturedPiece);
 			capturedPieces.add((ChessPiece) capturedPiece);
 		}
 
 		// ## -- SPECIAL MOVE - King Side Castling -- ##
-		if (p instanceof King && targetPosition.getColumn() == sourcePosition.getColumn() + 2) {
-			Position sourceT = new Position(sourcePosition.getRow(), sourcePosition.getColumn() + 3);
-			Position targetT = new Position(sourcePosition.getRow(), sourcePosition.getColumn() + 1);
-
-			ChessPiece rook = (ChessPiece) board.removePiece(sourceT);
-			board.placePiece(rook, targetT);
+		if (p instanceof King && target == source + 2) {
+			ChessPiece rook = (ChessPiece) removePiece(source + 3);
+			placePiece(rook, source + 1);
 			rook.increaseMoveCount();
 		}
 
 		// ## -- SPECIAL MOVE - Queen Side Castling -- ##
-		if (p instanceof King && targetPosition.getColumn() == sourcePosition.getColumn() - 2) {
-			Position sourceT = new Position(sourcePosition.getRow(), sourcePosition.getColumn() - 4);
-			Position targetT = new Position(sourcePosition.getRow(), sourcePosition.getColumn() - 1);
-
-			ChessPiece rook = (ChessPiece) board.removePiece(sourceT);
-			board.placePiece(rook, targetT);
+		if (p instanceof King && target == source - 2) {
+			ChessPiece rook = (ChessPiece) removePiece(source - 4);
+			placePiece(rook, source - 1);
 			rook.increaseMoveCount();
 		}
 
 		// ## -- SPECIAL MOVE - EnPassant -- ##
 		if (p instanceof Pawn) {
-			if (sourcePosition.getColumn() != targetPosition.getColumn() && capturedPiece == null) {
-				Position pawnPosition;
-				if (p.getColor() == Color.WHITE) {
-					pawnPosition = new Position(targetPosition.getRow() + 1, targetPosition.getColumn());
-				} else {
-					pawnPosition = new Position(targetPosition.getRow() - 1, targetPosition.getColumn());
-				}
-				capturedPiece = board.removePiece(pawnPosition);
+			if ((source & 7) != (target & 7) && capturedPiece == null) {
+				int pawnSquare = (p.getColor() == Color.WHITE) ? target + 8 : target - 8;
+
+				capturedPiece = removePiece(pawnSquare);
 				capturedPieces.add((ChessPiece) capturedPiece);
-				piecesOnBoard.remove(capturedPiece);
+				dropPiece((ChessPiece) capturedPiece);
 			}
 		}
 
+		// ## -- HALFMOVE CLOCK: BACK TO 0 AFTER A CAPTURE OR A PAWN MOVE -- ##
+		int ply = enPassantHistory.size();
+		if (ply == clockHistory.length) {
+			clockHistory = Arrays.copyOf(clockHistory, ply * 2);
+		}
+		clockHistory[ply] = halfMoveClock;
+		halfMoveClock = (capturedPiece != null || p instanceof Pawn) ? 0 : halfMoveClock + 1;
+
+		// ## -- Special Move - En Passant -- ##
+		enPassantHistory.add(enPassantVulnerable);
+
+		if (p instanceof Pawn && Math.abs(target - source) == 16) {
+			enPassantVulnerable = p;
+		} else {
+			enPassantVulnerable = null;
+		}
+
+		// ## -- Special Move - Promotion -- ##
+		if (p instanceof Pawn && (target < 8 || target >= 56)) {
+			removePiece(target);
+			dropPiece(p);
+
+			ChessPiece newPiece = newPiece(promotion, p.getColor());
+			placePiece(newPiece, target);
+			addPiece(newPiece);
+			promotionHistory.add(p);
+		} else {
+			promotionHistory.add(null);
+		}
+
+		zobristKey ^= previousState ^ Zobrist.castling(castlingRights()) ^ enPassantKey() ^ Zobrist.side();
+
 		return capturedPiece;
 	}
 
-	private void undoMove(Position sourcePosition, Position targetPosition, Piece capturedPiece) {
-		ChessPiece p = (ChessPiece) board.removePiece(targetPosition);
+	public Piece makeMove(int move) {
+		return makeMove(Move.source(move), Move.target(move), Move.promotion(move));
+	}
+
+	void undoMove(int source, int target, Piece capturedPiece) {
+		UNDO_MOVE.increment();
+		long movedState = Zobrist.castling(castlingRights()) ^ enPassantKey();
+
+		enPassantVulnerable = enPassantHistory.remove(enPassantHistory.size() - 1);
+		halfMoveClock = clockHistory[enPassantHistory.size()];
+		ChessPiece promotedPawn = promotionHistory.remove(promotionHistory.size() - 1);
+
+		ChessPiece p = (ChessPiece) removePiece(target);
+
+		if (promotedPawn != null) {
+			dropPiece(p);
+			restorePiece(promotedPawn);
+			p = promotedPawn;
+		}
 		p.decreaseMoveCount();
 
-		board.placePiece(p, sourcePosition);
+		placePiece(p, source);
 
 		if (capturedPiece != null) {
-			board.placePiece(capturedPiece, targetPosition);
-			capturedPieces.remove(capturedPiece);
-			piecesOnBoard.add((ChessPiece) capturedPiece);
+			placePiece(capturedPiece, target);
+			capturedPieces.remove(capturedPieces.size() - 1);
+			restorePiece((ChessPiece) capturedPiece);
 		}
 
 		// ## -- SPECIAL MOVE - King Side Castling -- ##
-		if (p instanceof King && targetPosition.getColumn() == sourcePosition.getColumn() + 2) {
-			Position sourceT = new Position(sourcePosition.getRow(), sourcePosition.getColumn() + 3);
-			Position targetT = new Position(sourcePosition.getRow(), sourcePosition.getColumn() + 1);
-
-			ChessPiece rook = (ChessPiece) board.removePiece(targetT);
-			board.placePiece(rook, sourceT);
+		if (p instanceof King && target == source + 2) {
+			ChessPiece rook = (ChessPiece) removePiece(source + 1);
+			placePiece(rook, source + 3);
 			rook.decreaseMoveCount();
 		}
 
 		// ## -- SPECIAL MOVE - Queen Side Castling -- ##
-		if (p instanceof King && targetPosition.getColumn() == sourcePosition.getColumn() - 2) {
-			Position sourceT = new Position(sourcePosition.getRow(), sourcePosition.getColumn() - 4);
-			Position targetT = new Position(sourcePosition.getRow(), sourcePosition.getColumn() - 1);
-
-			ChessPiece rook = (ChessPiece) board.removePiece(targetT);
-			board.placePiece(rook, sourceT);
+		if (p instanceof King && target == source - 2) {
+			ChessPiece rook = (ChessPiece) removePiece(source - 1);
+			placePiece(rook, source - 4);
 			rook.decreaseMoveCount();
 		}
 
 		// ## -- SPECIAL MOVE - EnPassant -- ##
 		if (p instanceof Pawn) {
-			if (sourcePosition.getColumn() != targetPosition.getColumn() && capturedPiece == enPassantVulnerable) {
-				ChessPiece pawn = (ChessPiece) board.removePiece(targetPosition);
-				Position pawnPosition;
-				if (p.getColor() == Color.WHITE) {
-					pawnPosition = new Position(3, targetPosition.getColumn());
-				} else {
-					pawnPosition = new Position(4, targetPosition.getColumn());
-				}
-				board.placePiece(pawn, pawnPosition);
+			// A PAWN TAKEN EN PASSANT IS CAPTURED FROM THE ROW BEHIND THE TARGET; A PLAIN CAPTURE
+			// OF THE SAME PAWN LANDS ON ITS OWN ROW
+			int enPassantRow = (p.getColor() == Color.WHITE) ? 2 : 5;
+
+			if ((source & 7) != (target & 7) && capturedPiece == enPassantVulnerable && target >>> 3 == enPassantRow) {
+				ChessPiece pawn = (ChessPiece) removePiece(target);
+				placePiece(pawn, (p.getColor() == Color.WHITE) ? target + 8 : target - 8);
 			}
 		}
+
+		zobristKey ^= movedState ^ Zobrist.castling(castlingRights()) ^ enPassantKey() ^ Zobrist.side();
+		keyCount--;
+	}
+
+	public void undoMove(int move, Piece capturedPiece) {
+		undoMove(Move.source(move), Move.target(move), capturedPiece);
+	}
+
+	// BOARD MUTATIONS GO THROUGH THESE TWO METHODS SO THE ZOBRIST KEY AND THE SCORES FOLLOW
+	// EVERY PIECE
+	private void placePiece(Piece piece, int square) {
+		int side = piece.getSide();
+		int kind = piece.getKind();
+
+		board.placePiece(piece, square);
+		zobristKey ^= Zobrist.piece(side, kind, square);
+		middlegameScore += PieceSquare.middlegame(side, kind, square);
+		endgameScore += PieceSquare.endgame(side, kind, square);
+		phase += PieceSquare.phase(kind);
+
+		if (kind == ChessPiece.KING) {
+			kingSquares[side] = square;
+		}
+	}
+
+	private Piece removePiece(int square) {
+		Piece piece = board.removePiece(square);
+
+		if (piece != null) {
+			int side = piece.getSide();
+			int kind = piece.getKind();
+
+			zobristKey ^= Zobrist.piece(side, kind, square);
+			middlegameScore -= PieceSquare.middlegame(side, kind, square);
+			endgameScore -= PieceSquare.endgame(side, kind, square);
+			phase -= PieceSquare.phase(kind);
+		}
+		return piece;
+	}
+
+	private void addPiece(ChessPiece piece) {
+		int side = piece.getSide();
+
+		if (pieceCounts[side] == piecesOnBoard[side].length) {
+			throw new ChessException("There can be at most " + piecesOnBoard[side].length + " " + piece.getColor() + " pieces!");
+		}
+		piece.listIndex = pieceCounts[side]++;
+		piecesOnBoard[side][piece.listIndex] = piece;
+	}
+
+	private void dropPiece(ChessPiece piece) {
+		int side = piece.getSide();
+		ChessPiece last = piecesOnBoard[side][--pieceCounts[side]];
+
+		piecesOnBoard[side][piece.listIndex] = last;
+		last.listIndex = piece.listIndex;
+		piecesOnBoard[side][pieceCounts[side]] = null;
+	}
+
+	// EXACT INVERSE OF dropPiece: THE PIECE GOES BACK TO ITS OLD SLOT AND THE PIECE THAT WAS
+	// SWAPPED INTO IT RETURNS TO THE END
+	private void restorePiece(ChessPiece piece) {
+		int side = piece.getSide();
+		ChessPiece moved = piecesOnBoard[side][piece.listIndex];
+
+		// null WHEN THE PIECE WAS THE LAST ONE AND NOTHING WAS SWAPPED
+		if (moved != null) {
+			piecesOnBoard[side][pieceCounts[side]] = moved;
+			moved.listIndex = pieceCounts[side];
+		}
+		pieceCounts[side]++;
+		piecesOnBoard[side][piece.listIndex] = piece;
+	}
+
+	// CASTLING RIGHTS (Zobrist.WHITE_KING_SIDE...) STILL HELD BY THE KINGS AND ROOKS ON THE BOARD
+	private int castlingRights() {
+		int rights = 0;
+
+		if (castlingRight(Color.WHITE, 60, 63)) {
+			rights |= Zobrist.WHITE_KING_SIDE;
+		}
+		if (castlingRight(Color.WHITE, 60, 56)) {
+			rights |= Zobrist.WHITE_QUEEN_SIDE;
+		}
+		if (castlingRight(Color.BLACK, 4, 7)) {
+			rights |= Zobrist.BLACK_KING_SIDE;
+		}
+		if (castlingRight(Color.BLACK, 4, 0)) {
+			rights |= Zobrist.BLACK_QUEEN_SIDE;
+		}
+		return rights;
+	}
+
+	private boolean castlingRight(Color color, int kingSquare, int rookSquare) {
+		if ((board.getBitboard(color.ordinal(), ChessPiece.KING) & Bitboards.bit(kingSquare)) == 0L
+				|| (board.getBitboard(color.ordinal(), ChessPiece.ROOK) & Bitboards.bit(rookSquare)) == 0L) {
+			return false;
+		}
+		return ((ChessPiece) board.piece(kingSquare)).getMoveCount() == 0
+				&& ((ChessPiece) board.piece(rookSquare)).getMoveCount() == 0;
+	}
+
+	// CASTLING RIGHTS LEFT, AS Zobrist.WHITE_KING_SIDE... BITS
+	public int getCastlingRights() {
+		return castlingRights();
+	}
+
+	// COLUMN (0 FOR 'a') OF THE PAWN THAT CAN BE TAKEN EN PASSANT, OR -1. THE COLUMN ONLY COUNTS
+	// WHEN AN OPPONENT PAWN STANDS READY TO TAKE
+	public int getEnPassantColumn() {
+		if (enPassantVulnerable == null) {
+			return -1;
+		}
+
+		int square = enPassantVulnerable.getSquare();
+		long b = Bitboards.bit(square);
+		long neighbours = ((b >>> 1) & ~Bitboards.FILE_H) | ((b << 1) & ~Bitboards.FILE_A);
+
+		if ((board.getBitboard(1 - enPassantVulnerable.getSide(), ChessPiece.PAWN) & neighbours) == 0L) {
+			return -1;
+		}
+		return square & 7;
+	}
+
+	private long enPassantKey() {
+		int column = getEnPassantColumn();
+		return (column < 0) ? 0L : Zobrist.enPassant(column);
 	}
 
 	private void validateSourcePosition(Position position) {
 		if (!board.hasPiece(position)) {
-			throw new ChessException("There is no piece on source position.");
+			throw rejected("There is no piece on source position.");
 		}
 
 		if (currentPlayer != ((ChessPiece) board.piece(position)).getColor()) {
-			throw new ChessException("The chosen piece is not yours!");
+			throw rejected("The chosen piece is not yours!");
 		}
 
-		if (!board.piece(position).isAnyMovePossible()) {
-			throw new ChessException("There are no possible moves for the chosen piece.");
+		legalMoves.compute(currentPlayer);
+		if (legalMoves.targets((ChessPiece) board.piece(position)) == 0L) {
+			throw rejected("There are no possible moves for the chosen piece.");
 		}
 
 	}
 
 	private void validateTargetPosition(Position sourcePosition, Position targetPosition) {
 		if (!board.piece(sourcePosition).possibleMove(targetPosition)) {
-			throw new ChessException("The chosen piece cannot move to target position!");
+			throw rejected("The chosen piece cannot move to target position!");
+		}
+
+		legalMoves.compute(currentPlayer);
+		long legal = legalMoves.targets((ChessPiece) board.piece(sourcePosition));
+
+		if ((legal & Bitboards.bit(board.square(targetPosition))) == 0L) {
+			throw rejected("You can't put yourself in check!");
 		}
 	}
 
+	private static ChessException rejected(String message) {
+		REJECTED_MOVES.increment();
+		return new ChessException(message);
+	}
+
 	private void placeNewPiece(char column, int row, ChessPiece piece) {
-		board.placePiece(piece, new ChessPosition(column, row).toPosition());
-		piecesOnBoard.add(piece);
+		placePiece(piece, (8 - row) * 8 + (column - 'a'));
+		addPiece(piece);
 	}
 
 	public ChessPiece[][] getPieces() {
@@ -326,73 +1099,96 @@ public class ChessMatch {
 		placeNewPiece('h', 7, new Pawn(board, Color.BLACK, this));
 	}
 
-	private Color opponent(Color color) {
+	public Color opponent(Color color) {
 		return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
 	}
 
-	private ChessPiece king(Color color) {
-		List<Piece> pieces = piecesOnBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-				.collect(Collectors.toList());
-
-		for (Piece p : pieces) {
-			if (p instanceof King) {
-				return (ChessPiece) p;
-			}
-		}
-		throw new IllegalStateException("There is no " + color + " king on the board!");
+	// LOOKS OUTWARD FROM "square": A PIECE OF "byColor" ATTACKS IT EXACTLY WHEN IT STANDS ON A
+	// SQUARE THAT THE SAME KIND OF PIECE WOULD ATTACK FROM "square". PAWNS ARE MIRRORED, SINCE
+	// THEY ONLY CAPTURE FORWARD
+	public boolean isSquareAttacked(int square, Color byColor) {
+		return isSquareAttacked(square, byColor, board.getOccupied());
 	}
 
-	private boolean testCheck(Color color) {
-		Position kingPosition = king(color).getChessPosition().toPosition();
+	// SAME TEST AGAINST A HYPOTHETICAL OCCUPANCY: PIECES OFF "occupied" NEITHER ATTACK NOR BLOCK
+	boolean isSquareAttacked(int square, Color byColor, long occupied) {
+		int side = byColor.ordinal();
+		long queens = board.getBitboard(side, ChessPiece.QUEEN);
 
-		List<Piece> opponentPieces = piecesOnBoard.stream().filter(x -> ((ChessPiece) x).getColor() == opponent(color))
-				.collect(Collectors.toList());
+		return (Bitboards.knightAttacks(square) & board.getBitboard(side, ChessPiece.KNIGHT) & occupied) != 0L
+				|| (Bitboards.pawnAttacks(opponent(byColor), square) & board.getBitboard(side, ChessPiece.PAWN) & occupied) != 0L
+				|| (Bitboards.kingAttacks(square) & board.getBitboard(side, ChessPiece.KING) & occupied) != 0L
+				|| (Bitboards.bishopAttacks(square, occupied) & (board.getBitboard(side, ChessPiece.BISHOP) | queens) & occupied) != 0L
+				|| (Bitboards.rookAttacks(square, occupied) & (board.getBitboard(side, ChessPiece.ROOK) | queens) & occupied) != 0L;
+	}
 
-		for (Piece p : opponentPieces) {
-			boolean[][] matrix = p.possibleMoves();
+	public Board getBoard() {
+		return board;
+	}
 
-			if (matrix[kingPosition.getRow()][kingPosition.getColumn()]) {
-				return true;
-			}
+	int kingSquare(Color color) {
+		int square = kingSquares[color.ordinal()];
+
+		if (square < 0) {
+			throw new IllegalStateException("There is no " + color + " king on the board!");
 		}
-		return false;
+		return square;
 	}
 
-	private boolean testCheckMate(Color color) {
-		if (!testCheck(color)) {
-			return false;
+	// SQUARE A PAWN LANDS ON WHEN CAPTURING EN PASSANT, OR -1
+	int enPassantTarget() {
+		if (enPassantVulnerable == null) {
+			return -1;
 		}
+		int square = enPassantVulnerable.getSquare();
+		return (enPassantVulnerable.getColor() == Color.WHITE) ? square + 8 : square - 8;
+	}
 
-		List<Piece> pieces = piecesOnBoard.stream().filter(x -> ((ChessPiece) x).getColor() == color)
-				.collect(Collectors.toList());
+	public boolean testCheck(Color color) {
+		TEST_CHECK.increment();
+		return isSquareAttacked(kingSquare(color), opponent(color));
+	}
 
-		for (Piece p : pieces) {
-			boolean matrix[][] = p.possibleMoves();
+	int pieceCount(Color color) {
+		return pieceCounts[color.ordinal()];
+	}
 
-			// RUNS THE PIECES OF A GIVEN TEAM AND CHECKS IF ANY PIECE HAS A MOVEMENT TO
-			// CANCEL THE CHECKMATE
-			for (int i = 0; i < board.getRows(); i++) {
-				for (int j = 0; j < board.getColumns(); j++) {
-					if (matrix[i][j]) {
-						Position sourcePosition = ((ChessPiece) p).getChessPosition().toPosition();
-						Position targetPosition = new Position(i, j);
+	// THE I-TH PIECE OF A COLOR. THE ORDER IS STABLE ACROSS A makeMove/undoMove PAIR, SO CALLERS
+	// MAY WALK THE LIST WHILE TRYING MOVES
+	ChessPiece piece(Color color, int index) {
+		return piecesOnBoard[color.ordinal()][index];
+	}
 
-						Piece capturedPiece = makeMove(sourcePosition, targetPosition);
-						boolean testCheck = testCheck(color);
-						undoMove(sourcePosition, targetPosition, capturedPiece);
+	List<ChessPiece> piecesOf(Color... colors) {
+		List<ChessPiece> pieces = new ArrayList<>();
 
-						if (!testCheck) {
-							return false;
-						}
-					}
-				}
+		for (Color color : colors) {
+			for (int i = 0; i < pieceCounts[color.ordinal()]; i++) {
+				pieces.add(piecesOnBoard[color.ordinal()][i]);
 			}
 		}
-		return true;
+		return pieces;
+	}
+
+	// A SINGLE PASS OF THE LEGAL MOVE GENERATOR: IN CHECK AND NO PIECE HAS A LEGAL MOVE
+	boolean testCheckMate(Color color) {
+		TEST_CHECK_MATE_CALLS.increment();
+		long start = TEST_CHECK_MATE.start();
+
+		legalMoves.compute(color);
+		boolean mate = legalMoves.inCheck() && !legalMoves.hasAnyMove();
+
+		TEST_CHECK_MATE.stop(start);
+		return mate;
 	}
 
 	private void nextTurn() {
 		turn++;
 		currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
 	}
+
+	private void previousTurn() {
+		turn--;
+		currentPlayer = (currentPlayer == Color.WHITE) ? Color.BLACK : Color.WHITE;
+	}
 }
\ No newline at end of file
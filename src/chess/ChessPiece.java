@@ -2,13 +2,24 @@ package chess;
 
 import boardgame.Board;
 import boardgame.Piece;
-import boardgame.Position;
 
 public abstract class ChessPiece extends Piece {
 
+	// BITBOARD INDEXES OF EACH KIND OF PIECE (SEE Board.getBitboard)
+	public static final int PAWN = 0;
+	public static final int KNIGHT = 1;
+	public static final int BISHOP = 2;
+	public static final int ROOK = 3;
+	public static final int QUEEN = 4;
+	public static final int KING = 5;
+	public static final int KINDS = 6;
+
 	private Color color;
 	private int moveCount;
 
+	// SLOT OF THIS PIECE IN ChessMatch'S PIECE LIST FOR ITS COLOR
+	int listIndex;
+
 	public ChessPiece(Board board, Color color) {
 		super(board);
 		this.color = color;
@@ -21,22 +32,37 @@ public abstract class ChessPiece extends Piece {
 	public Color getColor() {
 		return color;
 	}
-	
+
 	public int getMoveCount() {
 		return moveCount;
 	}
 
-	protected boolean isThereOpponentPiece(Position position) {
-		ChessPiece p = (ChessPiece) getBoard().piece(position);
+	// BIT "square" IS SET FOR EVERY SQUARE THIS PIECE ATTACKS, WHETHER OR NOT IT COULD MOVE THERE
+	public abstract long attacksBitboard();
 
-		return p != null && p.getColor() != color;
+	@Override
+	public final int getSide() {
+		return color.ordinal();
 	}
-	
+
+	protected long ownPieces() {
+		return getBoard().getOccupied(getSide());
+	}
+
+	protected long opponentPieces() {
+		return getBoard().getOccupied(1 - getSide());
+	}
+
 	protected void increaseMoveCount() {
 		moveCount++;
 	}
-	
+
 	protected void decreaseMoveCount() {
 		moveCount--;
 	}
-}
\ No newline at end of file
+
+	// USED WHEN COPYING A MATCH
+	void setMoveCount(int moveCount) {
+		this.moveCount = moveCount;
+	}
+}
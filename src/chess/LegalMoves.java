@@ -0,0 +1,192 @@
+package chess;
+
+import boardgame.Board;
+import metrics.Counter;
+import metrics.MetricsRegistry;
+
+// LEGAL MOVE GENERATION WITHOUT TRIAL MOVES. compute() FINDS THE PIECES GIVING CHECK, THE
+// SQUARES THAT ANSWER A SINGLE CHECK (CAPTURING OR BLOCKING THE CHECKER) AND THE PIECES PINNED
+// TO THEIR KING. A PIECE'S LEGAL MOVES ARE THEN ITS POSSIBLE MOVES FILTERED BY THOSE MASKS, WITH
+// NO CHANGE TO THE BOARD.
+public class LegalMoves {
+
+	// NO LEGAL POSITION HAS MORE MOVES THAN THIS, SO IT IS A SAFE SIZE FOR ONE PLY OF A MOVE BUFFER
+	public static final int MAX_MOVES = 256;
+
+	// THE GENERATOR BEHIND THE SEARCH, testCheckMate AND EVERY MOVE CHECK (SEE MetricsRegistry)
+	private static final Counter COMPUTE = MetricsRegistry.counter("legalMoves.compute");
+	private static final Counter TARGETS = MetricsRegistry.counter("legalMoves.targets");
+
+	private ChessMatch match;
+	private Board board;
+
+	private Color side;
+	private Color opponent;
+	private int kingSquare;
+	private long checkers;
+	private long checkMask;
+	private long pinned;
+
+	public LegalMoves(ChessMatch match) {
+		this.match = match;
+		this.board = match.getBoard();
+	}
+
+	public void compute(Color side) {
+		COMPUTE.increment();
+		int us = side.ordinal();
+		int them = 1 - us;
+		long occupied = board.getOccupied();
+
+		this.side = side;
+		this.opponent = match.opponent(side);
+		kingSquare = match.kingSquare(side);
+
+		checkers = (Bitboards.knightAttacks(kingSquare) & board.getBitboard(them, ChessPiece.KNIGHT))
+				| (Bitboards.pawnAttacks(side, kingSquare) & board.getBitboard(them, ChessPiece.PAWN));
+		pinned = 0L;
+
+		// SLIDERS LINED UP WITH THE KING: WITH NOTHING IN BETWEEN THEY GIVE CHECK, WITH EXACTLY
+		// ONE OWN PIECE IN BETWEEN THAT PIECE IS PINNED
+		long queens = board.getBitboard(them, ChessPiece.QUEEN);
+		long snipers = (Bitboards.rookAttacks(kingSquare, 0L) & (board.getBitboard(them, ChessPiece.ROOK) | queens))
+				| (Bitboards.bishopAttacks(kingSquare, 0L) & (board.getBitboard(them, ChessPiece.BISHOP) | queens));
+
+		while (snipers != 0L) {
+			int sniper = Long.numberOfTrailingZeros(snipers);
+			snipers &= snipers - 1;
+
+			long blockers = Bitboards.between(kingSquare, sniper) & occupied;
+
+			if (blockers == 0L) {
+				checkers |= Bitboards.bit(sniper);
+			} else if ((blockers & (blockers - 1)) == 0L && (blockers & board.getOccupied(us)) != 0L) {
+				pinned |= blockers;
+			}
+		}
+
+		if (checkers == 0L) {
+			checkMask = -1L;
+		} else if ((checkers & (checkers - 1)) == 0L) {
+			checkMask = checkers | Bitboards.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+		} else {
+			// DOUBLE CHECK: ONLY THE KING MAY MOVE
+			checkMask = 0L;
+		}
+	}
+
+	public boolean inCheck() {
+		return checkers != 0L;
+	}
+
+	public long getCheckers() {
+		return checkers;
+	}
+
+	public long getPinned() {
+		return pinned;
+	}
+
+	// LEGAL TARGET SQUARES OF A PIECE OF THE SIDE PASSED TO compute()
+	public long targets(ChessPiece p) {
+		TARGETS.increment();
+		long moves = p.possibleMovesBitboard();
+		int from = p.getSquare();
+
+		if (p.getKind() == ChessPiece.KING) {
+			long legal = 0L;
+			long occupied = board.getOccupied();
+
+			while (moves != 0L) {
+				int target = Long.numberOfTrailingZeros(moves);
+				moves &= moves - 1;
+
+				// A STEPPING KING MUST NOT HIDE ITS TARGET FROM A SLIDER BEHIND IT. WHEN CASTLING
+				// THE ROOK LANDS NEXT TO THE KING AND KEEPS THAT LINE COVERED
+				long occupancy = (Math.abs(target - from) == 2) ? occupied : occupied ^ Bitboards.bit(from);
+
+				if (!match.isSquareAttacked(target, opponent, occupancy)) {
+					legal |= Bitboards.bit(target);
+				}
+			}
+			return legal;
+		}
+
+		long legal = moves & checkMask;
+
+		if ((pinned & Bitboards.bit(from)) != 0L) {
+			legal &= Bitboards.line(kingSquare, from);
+		}
+
+		// ## -- Special Move - En Passant -- ##
+		// TWO PAWNS LEAVE THE SAME ROW AT ONCE, WHICH NO MASK DESCRIBES, SO THE CAPTURE IS TESTED
+		// AGAINST THE OCCUPANCY IT LEAVES BEHIND
+		int enPassant = match.enPassantTarget();
+
+		if (p.getKind() == ChessPiece.PAWN && enPassant >= 0 && (moves & Bitboards.bit(enPassant)) != 0L) {
+			int captured = (side == Color.WHITE) ? enPassant + 8 : enPassant - 8;
+			long occupancy = board.getOccupied() ^ Bitboards.bit(from) ^ Bitboards.bit(enPassant) ^ Bitboards.bit(captured);
+
+			legal &= ~Bitboards.bit(enPassant);
+
+			if (!match.isSquareAttacked(kingSquare, opponent, occupancy)) {
+				legal |= Bitboards.bit(enPassant);
+			}
+		}
+		return legal;
+	}
+
+	public boolean hasAnyMove() {
+		for (int i = 0; i < match.pieceCount(side); i++) {
+			if (targets(match.piece(side, i)) != 0L) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// WRITES THE LEGAL MOVES AS Move ENCODINGS INTO "moves" FROM INDEX "start" AND RETURNS THE
+	// INDEX AFTER THE LAST ONE. EACH PROMOTION IS WRITTEN FOUR TIMES (QUEEN, ROOK, BISHOP,
+	// KNIGHT). NOTHING IS ALLOCATED, SO A SEARCH CAN SHARE ONE BUFFER ACROSS ALL ITS PLIES
+	public int generate(int[] moves, int start) {
+		int end = start;
+
+		for (int i = 0; i < match.pieceCount(side); i++) {
+			ChessPiece p = match.piece(side, i);
+			int source = p.getSquare();
+			long targets = targets(p);
+
+			while (targets != 0L) {
+				int target = Long.numberOfTrailingZeros(targets);
+				targets &= targets - 1;
+
+				if (p.getKind() == ChessPiece.PAWN && (target < 8 || target >= 56)) {
+					moves[end++] = Move.encode(source, target, ChessPiece.QUEEN);
+					moves[end++] = Move.encode(source, target, ChessPiece.ROOK);
+					moves[end++] = Move.encode(source, target, ChessPiece.BISHOP);
+					moves[end++] = Move.encode(source, target, ChessPiece.KNIGHT);
+				} else {
+					moves[end++] = Move.encode(source, target);
+				}
+			}
+		}
+		return end;
+	}
+
+	// NUMBER OF LEGAL MOVES, COUNTING EACH PROMOTION CHOICE SEPARATELY
+	public int count() {
+		int count = 0;
+
+		for (int i = 0; i < match.pieceCount(side); i++) {
+			ChessPiece p = match.piece(side, i);
+			long targets = targets(p);
+
+			count += Long.bitCount(targets);
+
+			if (p.getKind() == ChessPiece.PAWN) {
+				count += 3 * Long.bitCount(targets & (Bitboards.RANK_8 | Bitboards.RANK_1));
+			}
+		}
+		return count;
+	}
+}
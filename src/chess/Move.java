@@ -0,0 +1,75 @@
+package chess;
+
+// A MOVE PACKED INTO AN int SO MOVE LISTS CAN LIVE IN PRIMITIVE ARRAYS:
+// SOURCE SQUARE IN BITS 0-5, TARGET SQUARE IN BITS 6-11 AND THE PROMOTION KIND (A ChessPiece
+// KIND, 0 WHEN THE MOVE IS NOT A PROMOTION) IN BITS 12-14. THE VALUE FITS IN 16 BITS.
+public final class Move {
+
+	public static final int NONE = 0;
+
+	private static final char[] PROMOTION_LETTERS = { ' ', 'n', 'b', 'r', 'q' };
+
+	private Move() {
+	}
+
+	public static int encode(int source, int target, int promotion) {
+		return source | (target << 6) | (promotion << 12);
+	}
+
+	public static int encode(int source, int target) {
+		return source | (target << 6);
+	}
+
+	public static int source(int move) {
+		return move & 0x3F;
+	}
+
+	public static int target(int move) {
+		return (move >>> 6) & 0x3F;
+	}
+
+	public static int promotion(int move) {
+		return (move >>> 12) & 0x7;
+	}
+
+	public static String squareName(int square) {
+		return "" + (char) ('a' + (square & 7)) + (8 - (square >>> 3));
+	}
+
+	// THE MOVE WRITTEN IN COORDINATE NOTATION, AS toString() WRITES IT
+	public static int parse(String text) {
+		if (text.length() != 4 && text.length() != 5) {
+			throw new ChessException("Invalid move: " + text);
+		}
+
+		int promotion = 0;
+		if (text.length() == 5) {
+			promotion = new String(PROMOTION_LETTERS).indexOf(text.charAt(4));
+
+			if (promotion < 1) {
+				throw new ChessException("Invalid promotion piece: " + text);
+			}
+		}
+		return encode(parseSquare(text, 0), parseSquare(text, 2), promotion);
+	}
+
+	private static int parseSquare(String text, int index) {
+		int column = text.charAt(index) - 'a';
+		int row = '8' - text.charAt(index + 1);
+
+		if (column < 0 || column > 7 || row < 0 || row > 7) {
+			throw new ChessException("Invalid move: " + text);
+		}
+		return row * 8 + column;
+	}
+
+	// COORDINATE NOTATION, E.G. "e2e4" OR "e7e8q"
+	public static String toString(int move) {
+		String name = squareName(source(move)) + squareName(target(move));
+
+		if (promotion(move) != 0) {
+			name += PROMOTION_LETTERS[promotion(move)];
+		}
+		return name;
+	}
+}
@@ -0,0 +1,176 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import boardgame.Piece;
+
+// COUNTS THE LEAF NODES OF THE LEGAL MOVE TREE THROUGH ChessMatch.makeMove/undoMove, WITH
+// LegalMoves PRODUCING THE MOVES AT EACH PLY.
+// USAGE: java chess.Perft <depth> [fen]        - DIVIDE BY ROOT MOVE ON ALL CORES
+//        java chess.Perft --verify [maxNodes]  - CHECK THE STANDARD PUBLISHED POSITIONS
+public final class Perft {
+
+	// FEN FOLLOWED BY THE EXPECTED NODE COUNTS FOR DEPTH 1, 2, 3...
+	private static final Object[][] PUBLISHED_POSITIONS = {
+			{ ChessMatch.START_FEN, new long[] { 20L, 400L, 8902L, 197281L, 4865609L } },
+			{ "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+					new long[] { 48L, 2039L, 97862L, 4085603L } },
+			{ "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+					new long[] { 14L, 191L, 2812L, 43238L, 674624L, 11030083L } },
+			{ "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+					new long[] { 6L, 264L, 9467L, 422333L, 15833292L } },
+			{ "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+					new long[] { 44L, 1486L, 62379L, 2103487L } },
+			{ "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+					new long[] { 46L, 2079L, 89890L, 3894594L } } };
+
+	private Perft() {
+	}
+
+	public static long perft(ChessMatch match, int depth) {
+		return perft(match, match.getCurrentPlayer(), depth, new LegalMoves(match), moveStack(depth), 0);
+	}
+
+	// SPLITS THE TREE BY ROOT MOVE. EACH ROOT MOVE IS COUNTED ON ITS OWN COPY OF THE
+	// POSITION, SINCE ChessMatch AND Board ARE NOT THREAD-SAFE
+	public static Map<String, Long> divide(String fen, int depth, ForkJoinPool pool) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("Divide needs a depth of at least 1");
+		}
+
+		ChessMatch match = new ChessMatch(fen);
+		LegalMoves legalMoves = new LegalMoves(match);
+		int[] moves = new int[LegalMoves.MAX_MOVES];
+		List<DivideTask> tasks = new ArrayList<>();
+
+		legalMoves.compute(match.getCurrentPlayer());
+		int count = legalMoves.generate(moves, 0);
+
+		for (int i = 0; i < count; i++) {
+			tasks.add(new DivideTask(fen, moves[i], depth - 1));
+		}
+
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (DivideTask task : tasks) {
+			pool.execute(task);
+		}
+		for (DivideTask task : tasks) {
+			result.put(Move.toString(task.move), task.join());
+		}
+		return result;
+	}
+
+	// ONE SLICE OF MAX_MOVES PER PLY. A PLY WRITES ALL ITS MOVES BEFORE PLAYING THE FIRST ONE, SO
+	// A SINGLE LegalMoves CAN SERVE EVERY PLY
+	private static int[] moveStack(int depth) {
+		return new int[Math.max(depth, 1) * LegalMoves.MAX_MOVES];
+	}
+
+	private static long perft(ChessMatch match, Color side, int depth, LegalMoves legalMoves, int[] moves, int start) {
+		if (depth == 0) {
+			return 1L;
+		}
+
+		legalMoves.compute(side);
+
+		// THE LAST PLY ONLY NEEDS THE NUMBER OF MOVES, NOT THE MOVES THEMSELVES
+		if (depth == 1) {
+			return legalMoves.count();
+		}
+
+		int end = legalMoves.generate(moves, start);
+		long nodes = 0L;
+		Color opponent = match.opponent(side);
+
+		for (int i = start; i < end; i++) {
+			Piece capturedPiece = match.makeMove(moves[i]);
+			nodes += perft(match, opponent, depth - 1, legalMoves, moves, end);
+			match.undoMove(moves[i], capturedPiece);
+		}
+		return nodes;
+	}
+
+	private static boolean verify(long maxNodes) {
+		boolean ok = true;
+
+		for (Object[] entry : PUBLISHED_POSITIONS) {
+			String fen = (String) entry[0];
+			long[] expected = (long[]) entry[1];
+			System.out.println(fen);
+
+			for (int depth = 1; depth <= expected.length && expected[depth - 1] <= maxNodes; depth++) {
+				long start = System.nanoTime();
+				long nodes = perft(new ChessMatch(fen), depth);
+				long elapsed = System.nanoTime() - start;
+
+				boolean match = nodes == expected[depth - 1];
+				ok &= match;
+				System.out.println("  depth " + depth + ": " + nodes + (match ? " OK" : " FAILED, expected " + expected[depth - 1])
+						+ " (" + nodesPerSecond(nodes, elapsed) + " nps)");
+			}
+		}
+		return ok;
+	}
+
+	private static long nodesPerSecond(long nodes, long nanos) {
+		return nanos == 0L ? 0L : nodes * 1_000_000_000L / nanos;
+	}
+
+	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals("--verify")) {
+			long maxNodes = (args.length > 1) ? Long.parseLong(args[1]) : 5_000_000L;
+			boolean ok = verify(maxNodes);
+			System.out.println(ok ? "All counts match." : "Some counts do not match!");
+			System.exit(ok ? 0 : 1);
+		}
+
+		int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 5;
+		String fen = (args.length > 1) ? String.join(" ", java.util.Arrays.copyOfRange(args, 1, args.length)) : ChessMatch.START_FEN;
+
+		ForkJoinPool pool = new ForkJoinPool();
+		long start = System.nanoTime();
+		Map<String, Long> counts = divide(fen, depth, pool);
+		long elapsed = System.nanoTime() - start;
+		pool.shutdown();
+
+		long total = 0L;
+		for (Map.Entry<String, Long> entry : counts.entrySet()) {
+			System.out.println(entry.getKey() + ": " + entry.getValue());
+			total += entry.getValue();
+		}
+		System.out.println();
+		System.out.println("Moves: " + counts.size());
+		System.out.println("Nodes: " + total);
+		System.out.println("Time: " + elapsed / 1_000_000L + " ms");
+		System.out.println("Nodes per second: " + nodesPerSecond(total, elapsed) + " (" + pool.getParallelism() + " threads)");
+	}
+
+	private static class DivideTask extends RecursiveTask<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String fen;
+		private final int move;
+		private final int depth;
+
+		DivideTask(String fen, int move, int depth) {
+			this.fen = fen;
+			this.move = move;
+			this.depth = depth;
+		}
+
+		@Override
+		protected Long compute() {
+			ChessMatch match = new ChessMatch(fen);
+			Color side = match.getCurrentPlayer();
+
+			match.makeMove(move);
+			return perft(match, match.opponent(side), depth, new LegalMoves(match), moveStack(depth), 0);
+		}
+	}
+}
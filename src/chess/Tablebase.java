@@ -0,0 +1,270 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+import boardgame.Board;
+
+// ENDGAME TABLEBASES: THE EXACT RESULT OF EVERY POSITION WITH A GIVEN SET OF PIECES, READ FROM
+// FILES IN ONE DIRECTORY. EACH MATERIAL SIGNATURE ("KQvK", "KRvKN"...) HAS ITS OWN FILE,
+// WRITTEN BY TablebaseGenerator. A FILE IS ONLY MAPPED (READ-ONLY) THE FIRST TIME A POSITION
+// WITH THAT MATERIAL IS PROBED; A SIGNATURE WITH NO FILE IS REMEMBERED AS MISSING.
+//
+// PROBING IS SAFE FROM ANY NUMBER OF THREADS. AFTER A TABLE IS LOADED A PROBE TAKES NO LOCK:
+// IT IS A ConcurrentHashMap LOOKUP AND ONE READ FROM THE MAPPED FILE.
+//
+// FILE FORMAT ("<signature>.jtb"): THE BYTES 'J' 'T' 'B' '1', THE NUMBER OF PIECES n, THREE
+// RESERVED BYTES, n BYTES WITH THE PIECES IN INDEX ORDER (SIDE * 8 + KIND), THEN ONE BYTE PER
+// POSITION, 2 * 64^n OF THEM. A POSITION'S INDEX IS THE SIDE TO MOVE (0 WHITE, 1 BLACK)
+// FOLLOWED BY THE SQUARE OF EACH PIECE, IN BASE 64; PIECES OF THE SAME KIND GO IN SQUARE
+// ORDER. A VALUE OF 0 IS A DRAW, d > 0 MEANS THE SIDE TO MOVE MATES IN d PLIES AND d < 0
+// THAT IT IS MATED IN -d - 1 PLIES. DISTANCES STOP AT 127, WHICH STILL MEANS A WIN.
+public final class Tablebase {
+
+	// PROBE RESULTS: UNKNOWN, OR THE OUTCOME FOR THE SIDE TO MOVE IN THE LOW TWO BITS AND THE
+	// PLIES UNTIL MATE ABOVE THEM
+	public static final int UNKNOWN = -1;
+	public static final int LOSS = 0;
+	public static final int DRAW = 1;
+	public static final int WIN = 2;
+
+	// LONGEST DISTANCE TO MATE A TABLE HOLDS, IN PLIES
+	public static final int MAX_DISTANCE = 127;
+
+	// A BYTE BUFFER HOLDS AT MOST Integer.MAX_VALUE BYTES; A FIVE-PIECE TABLE NEEDS 2 * 64^5
+	public static final int MAX_PIECES = 4;
+
+	static final String EXTENSION = ".jtb";
+	static final int HEADER_BYTES = 8;
+
+	private static final Table MISSING = new Table(null, null, null, false);
+
+	private final Path directory;
+	private final int maxPieces;
+	private final ConcurrentHashMap<Integer, Table> tables = new ConcurrentHashMap<>();
+
+	// READS THE HEADER OF EVERY FILE IN THE DIRECTORY, TO KNOW THE LARGEST TABLE; NO FILE IS
+	// MAPPED YET
+	public Tablebase(Path directory) throws IOException {
+		this.directory = directory;
+
+		int max = 2;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+			for (Path file : files) {
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+					max = Math.max(max, pieces(channel, file));
+				}
+			}
+		}
+		this.maxPieces = max;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	// POSITIONS WITH MORE PIECES THAN THIS ARE NEVER FOUND
+	public int getMaxPieces() {
+		return maxPieces;
+	}
+
+	public int probe(ChessMatch match) {
+		return probe(match, match.getCurrentPlayer());
+	}
+
+	// "sideToMove" IS PASSED SEPARATELY BECAUSE ChessMatch.makeMove DOES NOT CHANGE THE TURN.
+	// POSITIONS WITH CASTLING RIGHTS OR AN EN PASSANT CAPTURE ARE NOT IN THE TABLES
+	public int probe(ChessMatch match, Color sideToMove) {
+		Board board = match.getBoard();
+
+		if (Long.bitCount(board.getOccupied()) > maxPieces || match.getCastlingRights() != 0
+				|| match.getEnPassantColumn() >= 0) {
+			return UNKNOWN;
+		}
+		return probeIgnoringEnPassant(board, sideToMove);
+	}
+
+	// USED BY THE GENERATOR, WHICH DOES NOT TELL EN PASSANT RIGHTS APART
+	int probeIgnoringEnPassant(Board board, Color sideToMove) {
+		int pieces = Long.bitCount(board.getOccupied());
+
+		if (pieces == 2) {
+			return DRAW;
+		}
+		if (pieces > maxPieces) {
+			return UNKNOWN;
+		}
+
+		Table table = table(board);
+		if (table == MISSING) {
+			return UNKNOWN;
+		}
+
+		// load() CHECKED THAT THE WHOLE FILE FITS IN THE BUFFER, SO THE OFFSET FITS IN AN int
+		long offset = HEADER_BYTES + table.sides.length + index(board, sideToMove, table.sides, table.kinds, table.flipped);
+		return result(table.data.get((int) offset));
+	}
+
+	public static int outcome(int result) {
+		return result & 3;
+	}
+
+	public static int distance(int result) {
+		return result >>> 2;
+	}
+
+	// RESULT OF A STORED BYTE
+	static int result(int value) {
+		if (value > 0) {
+			return WIN | (value << 2);
+		}
+		if (value < 0) {
+			return LOSS | ((-value - 1) << 2);
+		}
+		return DRAW;
+	}
+
+	private Table table(Board board) {
+		Integer key = materialKey(board);
+		Table table = tables.get(key);
+
+		if (table == null) {
+			table = tables.computeIfAbsent(key, k -> load(board));
+		}
+		return table;
+	}
+
+	// TRIES THE SIGNATURE AS IT STANDS, THEN WITH THE COLORS SWAPPED (A BLACK KQ AGAINST A WHITE
+	// K IS READ FROM "KQvK" WITH THE BOARD TURNED AROUND)
+	private Table load(Board board) {
+		try {
+			String signature = signature(board, false);
+			Path file = directory.resolve(signature + EXTENSION);
+			boolean flipped = false;
+
+			if (!Files.exists(file)) {
+				file = directory.resolve(signature(board, true) + EXTENSION);
+				flipped = true;
+			}
+			if (!Files.exists(file)) {
+				return MISSING;
+			}
+
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+				int n = pieces(channel, file);
+				ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				int[] sides = new int[n];
+				int[] kinds = new int[n];
+
+				for (int i = 0; i < n; i++) {
+					sides[i] = data.get(HEADER_BYTES + i) >>> 3;
+					kinds[i] = data.get(HEADER_BYTES + i) & 7;
+				}
+				return new Table(data, sides, kinds, flipped);
+			}
+		} catch (IOException e) {
+			throw new ChessException("Error loading tablebase: " + e.getMessage());
+		}
+	}
+
+	// THE NUMBER OF PIECES IN A FILE'S HEADER, ONCE THE FILE IS KNOWN TO HOLD EXACTLY THAT TABLE
+	private static int pieces(FileChannel channel, Path file) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) {
+				throw new IOException("Not a tablebase file: " + file);
+			}
+		}
+		if (header.get(0) != 'J' || header.get(1) != 'T' || header.get(2) != 'B' || header.get(3) != '1') {
+			throw new IOException("Not a tablebase file: " + file);
+		}
+
+		int n = header.get(4);
+		if (n < 2) {
+			throw new IOException("Not a tablebase file: " + file);
+		}
+		if (n > MAX_PIECES) {
+			throw new IOException("Tablebase of " + n + " pieces is too large to map: " + file);
+		}
+		if (channel.size() != HEADER_BYTES + n + 2 * (1L << (6 * n))) {
+			throw new IOException("Truncated tablebase file: " + file);
+		}
+		return n;
+	}
+
+	// THE SIDE TO MOVE, THEN EVERY PIECE'S SQUARE, AS A BASE 64 NUMBER. WHEN "flipped" THE TABLE
+	// DESCRIBES THE POSITION WITH COLORS SWAPPED AND THE BOARD MIRRORED TOP TO BOTTOM
+	static long index(Board board, Color sideToMove, int[] sides, int[] kinds, boolean flipped) {
+		int toMove = (sideToMove == Color.WHITE) ? 0 : 1;
+		long index = flipped ? 1 - toMove : toMove;
+		long pieces = 0L;
+
+		for (int i = 0; i < sides.length; i++) {
+			if (i == 0 || sides[i] != sides[i - 1] || kinds[i] != kinds[i - 1]) {
+				int side = (sides[i] == 0) ? Color.WHITE.ordinal() : Color.BLACK.ordinal();
+				pieces = board.getBitboard(flipped ? 1 - side : side, kinds[i]);
+
+				// MIRRORED SQUARES KEEP THEIR ORDER ONLY AFTER A BYTE SWAP OF THE WHOLE BOARD
+				if (flipped) {
+					pieces = Long.reverseBytes(pieces);
+				}
+			}
+
+			int square = Long.numberOfTrailingZeros(pieces);
+			pieces &= pieces - 1;
+			index = index * 64 + square;
+		}
+		return index;
+	}
+
+	// PIECE COUNTS BY SIDE AND KIND, THREE BITS EACH
+	private static int materialKey(Board board) {
+		int key = 0;
+
+		for (int side = 0; side < 2; side++) {
+			for (int kind = ChessPiece.PAWN; kind < ChessPiece.KING; kind++) {
+				key = (key << 3) | Math.min(Long.bitCount(board.getBitboard(side, kind)), 7);
+			}
+		}
+		return key;
+	}
+
+	// E.G. "KRvKN": THE WHITE PIECES, "v", THE BLACK PIECES, STRONGEST FIRST
+	static String signature(Board board, boolean swapColors) {
+		int white = swapColors ? Color.BLACK.ordinal() : Color.WHITE.ordinal();
+		return pieces(board, white) + "v" + pieces(board, 1 - white);
+	}
+
+	private static String pieces(Board board, int side) {
+		StringBuilder sb = new StringBuilder();
+
+		for (int kind = ChessPiece.KING; kind >= ChessPiece.PAWN; kind--) {
+			for (int i = Long.bitCount(board.getBitboard(side, kind)); i > 0; i--) {
+				sb.append("PNBRQK".charAt(kind));
+			}
+		}
+		return sb.toString();
+	}
+
+	private static final class Table {
+
+		private final ByteBuffer data;
+		private final int[] sides;
+		private final int[] kinds;
+		private final boolean flipped;
+
+		Table(ByteBuffer data, int[] sides, int[] kinds, boolean flipped) {
+			this.data = data;
+			this.sides = sides;
+			this.kinds = kinds;
+			this.flipped = flipped;
+		}
+	}
+}
@@ -0,0 +1,382 @@
+package chess;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import boardgame.Piece;
+
+// WRITES Tablebase FILES BY RETROGRADE ANALYSIS. EVERY PLACEMENT OF THE PIECES IS SET UP ONCE
+// TO LIST ITS LEGAL MOVES; MATES ARE FOUND FIRST, THEN EACH PASS RESOLVES THE POSITIONS ONE PLY
+// FURTHER FROM MATE, UNTIL A PASS CHANGES NOTHING. WHAT IS LEFT IS A DRAW. MOVES THAT CAPTURE OR
+// PROMOTE LEAD TO ANOTHER TABLE, WHICH IS GENERATED FIRST.
+//
+// THE MOVE LISTS ARE KEPT IN MEMORY, SO ONLY TABLES OF UP TO THREE PIECES ARE GENERATED.
+// EN PASSANT RIGHTS ARE NOT PART OF A POSITION'S INDEX, AND THE FIFTY-MOVE RULE IS IGNORED.
+// USAGE: java chess.TablebaseGenerator <directory> <signature>...   (E.G. KQvK KRvK KPvK)
+public final class TablebaseGenerator {
+
+	public static final int MAX_PIECES = 3;
+
+	private static final String PIECE_LETTERS = "PNBRQK";
+
+	private TablebaseGenerator() {
+	}
+
+	// GENERATES "signature" (AND THE TABLES IT LEADS TO) UNLESS ITS FILE ALREADY EXISTS
+	public static void generate(Path directory, String signature) throws IOException {
+		Path file = directory.resolve(signature + Tablebase.EXTENSION);
+
+		if (Files.exists(file)) {
+			return;
+		}
+
+		int[] sides = new int[signature.length() - 1];
+		int[] kinds = new int[sides.length];
+		parse(signature, sides, kinds);
+
+		if (sides.length > MAX_PIECES) {
+			throw new IllegalArgumentException("Only tables of up to " + MAX_PIECES + " pieces can be generated: " + signature);
+		}
+
+		// TABLES REACHED BY A CAPTURE OR A PROMOTION COME FIRST
+		for (int i = 0; i < sides.length; i++) {
+			if (kinds[i] == ChessPiece.KING) {
+				continue;
+			}
+			if (sides.length > 3) {
+				generate(directory, signature(sides, kinds, i, -1));
+			}
+			if (kinds[i] == ChessPiece.PAWN) {
+				for (int kind = ChessPiece.KNIGHT; kind <= ChessPiece.QUEEN; kind++) {
+					generate(directory, signature(sides, kinds, i, kind));
+				}
+			}
+		}
+
+		long start = System.nanoTime();
+		byte[] values = new Generation(directory, sides, kinds).run();
+		write(file, sides, kinds, values);
+
+		System.out.println(signature + ": " + (System.nanoTime() - start) / 1_000_000L + " ms");
+	}
+
+	// PIECES IN INDEX ORDER: WHITE THEN BLACK, EACH SIDE FROM KING DOWN TO PAWN
+	private static void parse(String signature, int[] sides, int[] kinds) {
+		int v = signature.indexOf('v');
+
+		if (v < 1 || signature.charAt(0) != 'K' || v + 1 >= signature.length() || signature.charAt(v + 1) != 'K') {
+			throw new IllegalArgumentException("Invalid material signature: " + signature);
+		}
+
+		int n = 0;
+		for (int i = 0; i < signature.length(); i++) {
+			if (i == v) {
+				continue;
+			}
+			int kind = PIECE_LETTERS.indexOf(signature.charAt(i));
+
+			if (kind < 0 || (kind == ChessPiece.KING && i != 0 && i != v + 1)) {
+				throw new IllegalArgumentException("Invalid material signature: " + signature);
+			}
+			sides[n] = (i < v) ? 0 : 1;
+			kinds[n] = kind;
+			n++;
+		}
+
+		for (int side = 0; side < 2; side++) {
+			for (int i = 1; i < n; i++) {
+				if (sides[i] == side && sides[i - 1] == side && kinds[i] > kinds[i - 1]) {
+					throw new IllegalArgumentException("Pieces must go from strongest to weakest: " + signature);
+				}
+			}
+		}
+	}
+
+	// THE SIGNATURE WITH PIECE "removed" TAKEN OFF, OR TURNED INTO "promotion" WHEN THAT IS NOT -1
+	private static String signature(int[] sides, int[] kinds, int removed, int promotion) {
+		StringBuilder[] parts = { new StringBuilder(), new StringBuilder() };
+
+		for (int side = 0; side < 2; side++) {
+			for (int kind = ChessPiece.KING; kind >= ChessPiece.PAWN; kind--) {
+				for (int i = 0; i < sides.length; i++) {
+					int k = (i == removed) ? promotion : kinds[i];
+
+					if (sides[i] == side && k == kind) {
+						parts[side].append(PIECE_LETTERS.charAt(kind));
+					}
+				}
+			}
+		}
+		return parts[0] + "v" + parts[1];
+	}
+
+	private static void write(Path file, int[] sides, int[] kinds, byte[] values) throws IOException {
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+			out.write(new byte[] { 'J', 'T', 'B', '1', (byte) sides.length, 0, 0, 0 });
+
+			for (int i = 0; i < sides.length; i++) {
+				out.write(sides[i] * 8 + kinds[i]);
+			}
+			out.write(values);
+		}
+		Files.move(temporary, file);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: java chess.TablebaseGenerator <directory> <signature>...");
+			System.exit(1);
+		}
+
+		Path directory = Paths.get(args[0]);
+		Files.createDirectories(directory);
+
+		for (int i = 1; i < args.length; i++) {
+			generate(directory, args[i]);
+		}
+	}
+
+	private static final class Generation {
+
+		// STATE OF A POSITION WHILE THE TABLE IS BUILT
+		private static final byte INVALID = 0;
+		private static final byte OPEN = 1;
+		private static final byte RESOLVED = 2;
+
+		private final Tablebase tablebase;
+		private final int[] sides;
+		private final int[] kinds;
+		private final int size;
+
+		private final byte[] state;
+		private final byte[] values;
+
+		// LEGAL MOVES THAT STAY IN THIS TABLE, AS INDEXES OF THE POSITIONS THEY LEAD TO
+		private final int[] offsets;
+		private int[] children = new int[1 << 20];
+
+		// MOVES INTO OTHER TABLES: THE FASTEST WIN THEY GIVE, AND WHETHER ALL OF THEM LOSE (AND
+		// HOW SLOWLY)
+		private final int[] externalWin;
+		private final int[] externalLoss;
+		private final boolean[] externalNotLost;
+
+		Generation(Path directory, int[] sides, int[] kinds) throws IOException {
+			this.tablebase = new Tablebase(directory);
+			this.sides = sides;
+			this.kinds = kinds;
+			this.size = 2 << (6 * sides.length);
+
+			state = new byte[size];
+			values = new byte[size];
+			offsets = new int[size + 1];
+			externalWin = new int[size];
+			externalLoss = new int[size];
+			externalNotLost = new boolean[size];
+		}
+
+		byte[] run() {
+			listMoves();
+
+			int maxExternal = 0;
+			for (int i = 0; i < size; i++) {
+				if (externalWin[i] != Integer.MAX_VALUE) {
+					maxExternal = Math.max(maxExternal, externalWin[i]);
+				}
+				maxExternal = Math.max(maxExternal, externalLoss[i]);
+			}
+
+			// PASS "ply" RESOLVES THE POSITIONS WHOSE MATE IS EXACTLY "ply" PLIES AWAY
+			boolean changed = true;
+			for (int ply = 1; changed || ply <= maxExternal; ply++) {
+				changed = false;
+
+				for (int i = 0; i < size; i++) {
+					if (state[i] == OPEN && resolve(i, ply)) {
+						changed = true;
+					}
+				}
+			}
+
+			// NEITHER SIDE CAN FORCE MATE FROM WHAT IS LEFT
+			for (int i = 0; i < size; i++) {
+				if (state[i] == OPEN) {
+					values[i] = 0;
+				}
+			}
+			return values;
+		}
+
+		// SETS UP EVERY PLACEMENT ONCE AND RECORDS WHERE ITS LEGAL MOVES LEAD
+		private void listMoves() {
+			int n = sides.length;
+			int[] squares = new int[n];
+			int[] moves = new int[LegalMoves.MAX_MOVES];
+			int count = 0;
+
+			for (int index = 0; index < size; index++) {
+				offsets[index] = count;
+				externalWin[index] = Integer.MAX_VALUE;
+
+				Color toMove = ((index >>> (6 * n)) == 0) ? Color.WHITE : Color.BLACK;
+				if (!decode(index, squares)) {
+					continue;
+				}
+
+				ChessMatch match = new ChessMatch(fen(squares, toMove));
+				if (match.testCheck(match.opponent(toMove))) {
+					continue;
+				}
+
+				state[index] = OPEN;
+				LegalMoves legalMoves = new LegalMoves(match);
+				legalMoves.compute(toMove);
+				int end = legalMoves.generate(moves, 0);
+
+				if (end == 0) {
+					state[index] = RESOLVED;
+					values[index] = (byte) (legalMoves.inCheck() ? -1 : 0);
+					continue;
+				}
+
+				for (int i = 0; i < end; i++) {
+					Piece capturedPiece = match.makeMove(moves[i]);
+					Color opponent = match.opponent(toMove);
+
+					if (capturedPiece == null && Move.promotion(moves[i]) == 0) {
+						if (count == children.length) {
+							children = Arrays.copyOf(children, children.length * 2);
+						}
+						children[count++] = (int) Tablebase.index(match.getBoard(), opponent, sides, kinds, false);
+					} else {
+						external(index, tablebase.probeIgnoringEnPassant(match.getBoard(), opponent));
+					}
+					match.undoMove(moves[i], capturedPiece);
+				}
+			}
+			offsets[size] = count;
+		}
+
+		// A MOVE INTO ANOTHER TABLE, WHOSE RESULT IS ALREADY KNOWN
+		private void external(int index, int result) {
+			if (result == Tablebase.UNKNOWN) {
+				throw new IllegalStateException("Missing tablebase for a capture or promotion");
+			}
+
+			int distance = Tablebase.distance(result);
+
+			if (Tablebase.outcome(result) == Tablebase.LOSS) {
+				externalWin[index] = Math.min(externalWin[index], distance + 1);
+			} else if (Tablebase.outcome(result) == Tablebase.WIN) {
+				externalLoss[index] = Math.max(externalLoss[index], distance + 1);
+			} else {
+				externalNotLost[index] = true;
+			}
+		}
+
+		private boolean resolve(int index, int ply) {
+			// WIN: SOME MOVE LEAVES THE OPPONENT MATED IN ply - 1
+			if (externalWin[index] <= ply) {
+				return set(index, ply);
+			}
+			for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+				int child = children[i];
+
+				if (state[child] == RESOLVED && values[child] < 0 && -values[child] - 1 <= ply - 1) {
+					return set(index, ply);
+				}
+			}
+
+			// LOSS: EVERY MOVE LETS THE OPPONENT MATE, THE SLOWEST IN ply - 1
+			if (externalNotLost[index] || externalWin[index] != Integer.MAX_VALUE || externalLoss[index] > ply) {
+				return false;
+			}
+			for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+				int child = children[i];
+
+				if (state[child] != RESOLVED || values[child] <= 0 || values[child] > ply - 1) {
+					return false;
+				}
+			}
+			return set(index, -ply);
+		}
+
+		// STORES A WIN IN "plies", OR A LOSS IN -plies, CAPPED AT WHAT A BYTE HOLDS
+		private boolean set(int index, int plies) {
+			state[index] = RESOLVED;
+			values[index] = (byte) ((plies > 0) ? Math.min(plies, Tablebase.MAX_DISTANCE) : Math.max(plies - 1, -128));
+			return true;
+		}
+
+		// SQUARES OF EACH PIECE, OR false WHEN THEY DO NOT MAKE A POSITION WORTH STORING: TWO
+		// PIECES ON ONE SQUARE, A PAWN ON THE FIRST OR LAST ROW, OR PIECES OF THE SAME KIND OUT OF
+		// SQUARE ORDER (THE SAME POSITION AS ANOTHER INDEX)
+		private boolean decode(int index, int[] squares) {
+			long occupied = 0L;
+
+			for (int i = squares.length - 1; i >= 0; i--) {
+				squares[i] = index & 63;
+				index >>>= 6;
+			}
+
+			for (int i = 0; i < squares.length; i++) {
+				long bit = 1L << squares[i];
+
+				if ((occupied & bit) != 0L) {
+					return false;
+				}
+				if (kinds[i] == ChessPiece.PAWN && (squares[i] < 8 || squares[i] >= 56)) {
+					return false;
+				}
+				if (i > 0 && sides[i] == sides[i - 1] && kinds[i] == kinds[i - 1] && squares[i] < squares[i - 1]) {
+					return false;
+				}
+				occupied |= bit;
+			}
+			return true;
+		}
+
+		private String fen(int[] squares, Color toMove) {
+			char[] board = new char[64];
+			Arrays.fill(board, ' ');
+
+			for (int i = 0; i < squares.length; i++) {
+				char letter = PIECE_LETTERS.charAt(kinds[i]);
+				board[squares[i]] = (sides[i] == 0) ? letter : Character.toLowerCase(letter);
+			}
+
+			StringBuilder sb = new StringBuilder();
+			for (int row = 0; row < 8; row++) {
+				int empty = 0;
+
+				for (int column = 0; column < 8; column++) {
+					char c = board[row * 8 + column];
+
+					if (c == ' ') {
+						empty++;
+					} else {
+						if (empty > 0) {
+							sb.append(empty);
+							empty = 0;
+						}
+						sb.append(c);
+					}
+				}
+				if (empty > 0) {
+					sb.append(empty);
+				}
+				if (row < 7) {
+					sb.append('/');
+				}
+			}
+			return sb.append(toMove == Color.WHITE ? " w - - 0 1" : " b - - 0 1").toString();
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package chess;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// FIXED-SIZE HASH TABLE OF SEARCH RESULTS, KEYED BY ChessMatch.getZobristKey().
+//
+// EACH ENTRY IS TWO longs HELD OFF-HEAP IN DIRECT BUFFERS: THE PACKED DATA (BEST MOVE, SCORE,
+// DEPTH, BOUND AND GENERATION) AND THE KEY XOR THE DATA. THERE ARE NO LOCKS; THREADS MAY RACE ON
+// THE SAME ENTRY, AND AN ENTRY TORN BY TWO CONCURRENT WRITES NO LONGER DECODES TO ITS KEY, SO
+// probe TREATS IT AS A MISS INSTEAD OF RETURNING ANOTHER POSITION'S DATA.
+public final class TranspositionTable {
+
+	public static final int NONE = 0;
+	public static final int EXACT = 1;
+	public static final int LOWER_BOUND = 2;
+	public static final int UPPER_BOUND = 3;
+
+	private static final int ENTRY_BYTES = 16;
+
+	// A DIRECT BUFFER IS INDEXED BY int, SO THE TABLE IS SPLIT INTO 1 GB CHUNKS
+	private static final int CHUNK_BITS = 30 - 4;
+	private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+			ByteOrder.nativeOrder());
+
+	private final ByteBuffer[] chunks;
+	private final long mask;
+	private int generation;
+
+	// THE NUMBER OF ENTRIES IS ROUNDED DOWN TO A POWER OF TWO THAT FITS IN "megabytes"
+	public TranspositionTable(int megabytes) {
+		if (megabytes < 1) {
+			throw new IllegalArgumentException("The transposition table needs at least 1 MB");
+		}
+
+		long entries = Long.highestOneBit(megabytes * (1L << 20) / ENTRY_BYTES);
+		mask = entries - 1;
+
+		int chunkEntries = (int) Math.min(entries, 1L << CHUNK_BITS);
+		chunks = new ByteBuffer[(int) (entries / chunkEntries)];
+
+		for (int i = 0; i < chunks.length; i++) {
+			chunks[i] = ByteBuffer.allocateDirect(chunkEntries * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+		}
+	}
+
+	public long getEntries() {
+		return mask + 1;
+	}
+
+	// CALLED AT THE START OF EVERY SEARCH, SO OLD ENTRIES ARE REPLACED FIRST
+	public void newSearch() {
+		generation = (generation + 1) & 0xFF;
+	}
+
+	public void clear() {
+		for (ByteBuffer chunk : chunks) {
+			for (int offset = 0; offset < chunk.capacity(); offset += Long.BYTES) {
+				LONGS.setOpaque(chunk, offset, 0L);
+			}
+		}
+	}
+
+	// RETURNS THE PACKED ENTRY FOR "key", OR 0 WHEN THE POSITION IS NOT STORED
+	public long probe(long key) {
+		ByteBuffer chunk = chunks[(int) ((key & mask) >>> CHUNK_BITS)];
+		int offset = (int) (key & mask & CHUNK_MASK) * ENTRY_BYTES;
+
+		long check = (long) LONGS.getOpaque(chunk, offset);
+		long data = (long) LONGS.getOpaque(chunk, offset + Long.BYTES);
+
+		return ((check ^ data) == key) ? data : 0L;
+	}
+
+	public void store(long key, int depth, int bound, int score, int move) {
+		ByteBuffer chunk = chunks[(int) ((key & mask) >>> CHUNK_BITS)];
+		int offset = (int) (key & mask & CHUNK_MASK) * ENTRY_BYTES;
+
+		long oldCheck = (long) LONGS.getOpaque(chunk, offset);
+		long oldData = (long) LONGS.getOpaque(chunk, offset + Long.BYTES);
+
+		// KEEP A DEEPER RESULT FOR THE SAME POSITION FROM THE CURRENT SEARCH, BUT ALWAYS
+		// REPLACE OTHER POSITIONS AND RESULTS LEFT OVER FROM EARLIER SEARCHES
+		if ((oldCheck ^ oldData) == key && generation(oldData) == generation && depth(oldData) > depth
+				&& bound != EXACT) {
+			return;
+		}
+
+		if (move == 0 && (oldCheck ^ oldData) == key) {
+			move = move(oldData);
+		}
+
+		long data = pack(depth, bound, score, move, generation);
+		LONGS.setOpaque(chunk, offset, key ^ data);
+		LONGS.setOpaque(chunk, offset + Long.BYTES, data);
+	}
+
+	// DATA LAYOUT: MOVE BITS 0-15, SCORE 16-31 (SIGNED), DEPTH 32-39, BOUND 40-41, GENERATION 42-49
+	private static long pack(int depth, int bound, int score, int move, int generation) {
+		return (move & 0xFFFFL)
+				| ((score & 0xFFFFL) << 16)
+				| ((long) Math.min(Math.max(depth, 0), 0xFF) << 32)
+				| ((long) bound << 40)
+				| ((long) generation << 42);
+	}
+
+	public static int move(long data) {
+		return (int) (data & 0xFFFF);
+	}
+
+	public static int score(long data) {
+		return (short) (data >>> 16);
+	}
+
+	public static int depth(long data) {
+		return (int) ((data >>> 32) & 0xFF);
+	}
+
+	public static int bound(long data) {
+		return (int) ((data >>> 40) & 0x3);
+	}
+
+	private static int generation(long data) {
+		return (int) ((data >>> 42) & 0xFF);
+	}
+}
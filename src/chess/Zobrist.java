@@ -0,0 +1,75 @@
+package chess;
+
+// RANDOM KEYS FOR ZOBRIST HASHING. A POSITION'S KEY IS THE XOR OF THE KEYS OF EVERY PIECE ON
+// ITS SQUARE, THE CASTLING RIGHTS, THE EN PASSANT FILE (ONLY WHEN THE CAPTURE IS AVAILABLE)
+// AND THE SIDE KEY WHEN BLACK IS TO MOVE. THE KEYS ARE GENERATED FROM A FIXED SEED, SO THEY
+// ARE THE SAME ON EVERY RUN.
+public final class Zobrist {
+
+	// CASTLING RIGHT BITS, AS USED BY ChessMatch
+	public static final int WHITE_KING_SIDE = 1;
+	public static final int WHITE_QUEEN_SIDE = 2;
+	public static final int BLACK_KING_SIDE = 4;
+	public static final int BLACK_QUEEN_SIDE = 8;
+
+	private static final long[] PIECE_SQUARE = new long[2 * ChessPiece.KINDS * 64];
+	private static final long[] CASTLING = new long[16];
+	private static final long[] EN_PASSANT = new long[8];
+	private static final long SIDE;
+
+	static {
+		long seed = 0x4A43484553534B59L;
+
+		for (int i = 0; i < PIECE_SQUARE.length; i++) {
+			seed += 0x9E3779B97F4A7C15L;
+			PIECE_SQUARE[i] = mix(seed);
+		}
+
+		long[] rights = new long[4];
+		for (int i = 0; i < rights.length; i++) {
+			seed += 0x9E3779B97F4A7C15L;
+			rights[i] = mix(seed);
+		}
+		for (int i = 0; i < CASTLING.length; i++) {
+			for (int j = 0; j < rights.length; j++) {
+				if ((i & (1 << j)) != 0) {
+					CASTLING[i] ^= rights[j];
+				}
+			}
+		}
+
+		for (int i = 0; i < EN_PASSANT.length; i++) {
+			seed += 0x9E3779B97F4A7C15L;
+			EN_PASSANT[i] = mix(seed);
+		}
+
+		seed += 0x9E3779B97F4A7C15L;
+		SIDE = mix(seed);
+	}
+
+	private Zobrist() {
+	}
+
+	public static long piece(int side, int kind, int square) {
+		return PIECE_SQUARE[(side * ChessPiece.KINDS + kind) * 64 + square];
+	}
+
+	public static long castling(int rights) {
+		return CASTLING[rights];
+	}
+
+	public static long enPassant(int column) {
+		return EN_PASSANT[column];
+	}
+
+	public static long side() {
+		return SIDE;
+	}
+
+	// SPLITMIX64 FINALIZER
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
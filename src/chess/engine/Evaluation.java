@@ -0,0 +1,28 @@
+package chess.engine;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.PieceSquare;
+
+// STATIC EVALUATION IN CENTIPAWNS, FROM THE POINT OF VIEW OF THE SIDE TO MOVE: MATERIAL AND
+// PIECE-SQUARE BONUSES, BLENDED FROM THE MIDDLEGAME SCORE TO THE ENDGAME SCORE AS THE PIECES
+// COME OFF. ChessMatch KEEPS BOTH SCORES AND THE PHASE UP TO DATE ON EVERY MOVE, SO A LEAF
+// COSTS A FEW ARITHMETIC OPERATIONS AND NO BOARD SCAN.
+public final class Evaluation {
+
+	// INDEXED BY ChessPiece KIND, FOR MOVE ORDERING. THE KING IS NEVER TRADED, SO IT IS WORTH
+	// NOTHING HERE
+	public static final int[] PIECE_VALUES = { 100, 320, 330, 500, 900, 0 };
+
+	private Evaluation() {
+	}
+
+	public static int evaluate(ChessMatch match, Color side) {
+		// PROMOTIONS CAN PUSH THE PHASE PAST ITS STARTING VALUE
+		int phase = Math.min(match.getPhase(), PieceSquare.MAX_PHASE);
+		int score = (match.getMiddlegameScore() * phase + match.getEndgameScore() * (PieceSquare.MAX_PHASE - phase))
+				/ PieceSquare.MAX_PHASE;
+
+		return (side == Color.WHITE) ? score : -score;
+	}
+}
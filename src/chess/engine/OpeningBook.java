@@ -0,0 +1,237 @@
+package chess.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import chess.Bitboards;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.LegalMoves;
+import chess.Move;
+
+// OPENING BOOK IN THE POLYGLOT .bin FORMAT: 16-BYTE BIG-ENDIAN ENTRIES (KEY, MOVE, WEIGHT,
+// LEARN), SORTED BY KEY. THE FILE IS MAPPED INTO MEMORY AND SEARCHED IN PLACE, SO NOTHING IS
+// COPIED TO THE HEAP AND EVERY BOOK OPENED ON THE SAME FILE SHARES ONE COPY IN THE PAGE CACHE.
+// A BOOK REUSES ITS OWN BUFFERS FOR LOOKUPS, SO IT BELONGS TO ONE THREAD AT A TIME; OTHER
+// THREADS TAKE A VIEW WITH new OpeningBook(book), WHICH SHARES THE MAPPING AND COSTS NOTHING.
+//
+// ENTRIES ARE FOUND BY THE KEY "keys" GIVES FOR A POSITION. BOOKS MADE BY OTHER POLYGLOT TOOLS
+// NEED A PolyglotHash; BOOKS WRITTEN WITH write() USE ChessMatch.getZobristKey().
+public class OpeningBook implements Closeable {
+
+	private static final int ENTRY_BYTES = 16;
+
+	// A MAPPING IS INDEXED BY int, SO LARGE FILES ARE MAPPED IN 1 GB CHUNKS
+	private static final int CHUNK_BITS = 30 - 4;
+	private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+	// null IN A VIEW, WHICH LEAVES THE FILE TO THE BOOK IT WAS TAKEN FROM
+	private final FileChannel channel;
+	private final ByteBuffer[] chunks;
+	private final long entries;
+	private final ToLongFunction<ChessMatch> keys;
+
+	// REUSED BY EVERY LOOKUP. THE LEGAL MOVE GENERATOR IS BOUND TO THE LAST MATCH PROBED
+	private final int[] moves = new int[LegalMoves.MAX_MOVES];
+	private final int[] weights = new int[LegalMoves.MAX_MOVES];
+	private LegalMoves legalMoves;
+	private ChessMatch legalMovesMatch;
+
+	public OpeningBook(Path file, ToLongFunction<ChessMatch> keys) throws IOException {
+		this.keys = keys;
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+
+		long size = channel.size();
+		if (size % ENTRY_BYTES != 0) {
+			channel.close();
+			throw new IOException("Not a Polyglot book, the size is not a multiple of " + ENTRY_BYTES + ": " + file);
+		}
+
+		entries = size / ENTRY_BYTES;
+		chunks = new ByteBuffer[(int) ((entries + CHUNK_MASK) >>> CHUNK_BITS)];
+
+		for (int i = 0; i < chunks.length; i++) {
+			long offset = ((long) i << CHUNK_BITS) * ENTRY_BYTES;
+			chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(size - offset, (CHUNK_MASK + 1) * ENTRY_BYTES));
+		}
+	}
+
+	// A VIEW OF THE SAME BOOK FOR ANOTHER THREAD. IT STAYS USABLE UNTIL "book" IS CLOSED;
+	// CLOSING THE VIEW ITSELF DOES NOTHING
+	public OpeningBook(OpeningBook book) {
+		this.keys = book.keys;
+		this.channel = null;
+		this.entries = book.entries;
+		this.chunks = new ByteBuffer[book.chunks.length];
+
+		for (int i = 0; i < chunks.length; i++) {
+			chunks[i] = book.chunks[i].duplicate();
+		}
+	}
+
+	// A BOOK KEYED BY OUR OWN ZOBRIST KEYS, AS WRITTEN BY write()
+	public static OpeningBook open(Path file) throws IOException {
+		return new OpeningBook(file, ChessMatch::getZobristKey);
+	}
+
+	public long getEntries() {
+		return entries;
+	}
+
+	// WRITES THE BOOK MOVES OF THE SIDE TO MOVE INTO "moves", THEIR WEIGHTS INTO "weights", AND
+	// RETURNS HOW MANY THERE ARE. MOVES THAT ARE NOT LEGAL IN THE POSITION (A KEY COLLISION) ARE
+	// LEFT OUT
+	public int moves(ChessMatch match, int[] moves, int[] weights) {
+		long key = keys.applyAsLong(match);
+
+		if (legalMovesMatch != match) {
+			legalMoves = new LegalMoves(match);
+			legalMovesMatch = match;
+		}
+		legalMoves.compute(match.getCurrentPlayer());
+
+		int count = 0;
+		for (long i = lowerBound(key); i < entries && key(i) == key && count < moves.length; i++) {
+			int move = toMove(match, polyglotMove(i));
+
+			if (move != Move.NONE && isLegal(match, legalMoves, move)) {
+				moves[count] = move;
+				weights[count] = weight(i);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	// A BOOK MOVE PICKED AT RANDOM IN PROPORTION TO ITS WEIGHT, OR Move.NONE WHEN THE POSITION
+	// IS NOT IN THE BOOK
+	public int move(ChessMatch match, Random random) {
+		int count = moves(match, moves, weights);
+
+		long total = 0L;
+		for (int i = 0; i < count; i++) {
+			total += weights[i];
+		}
+		if (total == 0L) {
+			return Move.NONE;
+		}
+
+		long pick = (long) (random.nextDouble() * total);
+		for (int i = 0; i < count; i++) {
+			pick -= weights[i];
+
+			if (pick < 0L) {
+				return moves[i];
+			}
+		}
+		return moves[count - 1];
+	}
+
+	// FIRST ENTRY WITH A KEY NOT BELOW "key". POLYGLOT KEYS ARE SORTED AS UNSIGNED NUMBERS
+	private long lowerBound(long key) {
+		long low = 0L;
+		long high = entries;
+
+		while (low < high) {
+			long middle = (low + high) >>> 1;
+
+			if (Long.compareUnsigned(key(middle), key) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private long key(long index) {
+		return chunks[(int) (index >>> CHUNK_BITS)].getLong((int) (index & CHUNK_MASK) * ENTRY_BYTES);
+	}
+
+	private int polyglotMove(long index) {
+		return chunks[(int) (index >>> CHUNK_BITS)].getShort((int) (index & CHUNK_MASK) * ENTRY_BYTES + 8) & 0xFFFF;
+	}
+
+	private int weight(long index) {
+		return chunks[(int) (index >>> CHUNK_BITS)].getShort((int) (index & CHUNK_MASK) * ENTRY_BYTES + 10) & 0xFFFF;
+	}
+
+	// POLYGLOT MOVE: TARGET COLUMN IN BITS 0-2, TARGET ROW 3-5, SOURCE COLUMN 6-8, SOURCE ROW
+	// 9-11 (ROW 0 IS RANK 1) AND PROMOTION 12-14 (1 KNIGHT ... 4 QUEEN, THE SAME NUMBERS AS
+	// ChessPiece). CASTLING IS WRITTEN AS THE KING TAKING ITS OWN ROOK
+	private static int toMove(ChessMatch match, int polyglot) {
+		int target = (7 - ((polyglot >>> 3) & 7)) * 8 + (polyglot & 7);
+		int source = (7 - ((polyglot >>> 9) & 7)) * 8 + ((polyglot >>> 6) & 7);
+		int promotion = (polyglot >>> 12) & 7;
+
+		if (source == target || promotion > ChessPiece.QUEEN) {
+			return Move.NONE;
+		}
+
+		ChessPiece piece = (ChessPiece) match.getBoard().piece(source);
+		if (piece != null && piece.getKind() == ChessPiece.KING && (source >>> 3) == (target >>> 3)
+				&& Math.abs(target - source) > 2) {
+			target = (target > source) ? source + 2 : source - 2;
+		}
+		return Move.encode(source, target, promotion);
+	}
+
+	private static int toPolyglot(int move) {
+		int source = Move.source(move);
+		int target = Move.target(move);
+
+		return (target & 7) | ((7 - (target >>> 3)) << 3) | ((source & 7) << 6) | ((7 - (source >>> 3)) << 9)
+				| (Move.promotion(move) << 12);
+	}
+
+	private static boolean isLegal(ChessMatch match, LegalMoves legalMoves, int move) {
+		ChessPiece piece = (ChessPiece) match.getBoard().piece(Move.source(move));
+
+		if (piece == null || piece.getColor() != match.getCurrentPlayer()
+				|| (legalMoves.targets(piece) & Bitboards.bit(Move.target(move))) == 0L) {
+			return false;
+		}
+
+		boolean promotes = piece.getKind() == ChessPiece.PAWN && (Move.target(move) < 8 || Move.target(move) >= 56);
+		return promotes == (Move.promotion(move) != 0);
+	}
+
+	// WRITES "count" ENTRIES AS A SORTED POLYGLOT BOOK. CASTLING STAYS A TWO-SQUARE KING MOVE,
+	// WHICH THIS CLASS READS BACK BUT OTHER POLYGLOT TOOLS MAY NOT
+	public static void write(Path file, long[] keys, int[] moves, int[] weights, int count) throws IOException {
+		Integer[] order = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Long.compareUnsigned(keys[a], keys[b]));
+
+		ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+			for (int i : order) {
+				entry.clear();
+				entry.putLong(keys[i]);
+				entry.putShort((short) toPolyglot(moves[i]));
+				entry.putShort((short) Math.min(weights[i], 0xFFFF));
+				entry.putInt(0);
+				out.write(entry.array());
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+}
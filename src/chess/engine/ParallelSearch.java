@@ -0,0 +1,158 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import chess.ChessMatch;
+import chess.TranspositionTable;
+
+// LAZY SMP: EVERY THREAD RUNS AN ORDINARY Search OF THE SAME ROOT ON ITS OWN COPY OF THE MATCH,
+// AND ALL OF THEM SHARE ONE TRANSPOSITION TABLE. THE THREADS DO NOT TALK TO EACH OTHER; THEY
+// HELP THE MAIN THREAD ONLY THROUGH THE RESULTS THEY LEAVE IN THE TABLE. HALF OF THE HELPERS
+// SEARCH ONE PLY DEEPER THAN THE MAIN THREAD, SO THEY DO NOT ALL FOLLOW THE SAME PATH.
+//
+// THE MAIN THREAD'S RESULT IS THE ONE REPORTED, WITH THE NODES OF ALL THREADS ADDED UP. WHEN IT
+// FINISHES, THE HELPERS ARE STOPPED.
+public class ParallelSearch {
+
+	private final TranspositionTable table;
+	private final int threads;
+	private final ExecutorService executor;
+
+	private final List<Search> searches = new ArrayList<>();
+
+	public ParallelSearch(int threads, TranspositionTable table) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("A search needs at least one thread");
+		}
+		this.threads = threads;
+		this.table = table;
+		this.executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "search");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public TranspositionTable getTable() {
+		return table;
+	}
+
+	// SEARCHES THE SIDE TO MOVE OF "match" UNTIL THE LIMITS ARE REACHED. "match" ITSELF IS ONLY
+	// READ, TO MAKE ONE COPY PER THREAD
+	public SearchResult search(ChessMatch match, SearchLimits limits) {
+		try {
+			return start(match, limits).join();
+		} catch (CompletionException e) {
+			throw new IllegalStateException("Search failed", e.getCause());
+		}
+	}
+
+	// STARTS THE SEARCH AND RETURNS AT ONCE. THE THREADS' COPIES OF "match" ARE MADE BEFORE THIS
+	// RETURNS, SO "match" MAY CHANGE AFTERWARDS, AND A stop() CALLED AFTERWARDS IS NEVER LOST
+	public CompletableFuture<SearchResult> start(ChessMatch match, SearchLimits limits) {
+		long start = System.nanoTime();
+		SearchLimits helperLimits = new SearchLimits(Search.MAX_PLY, 0L, 0L);
+		List<Search> started = new ArrayList<>();
+
+		// NEW Search OBJECTS EVERY TIME, SO A stop() FROM ANOTHER THREAD IS NEVER RESET BY A
+		// THREAD THAT HAS NOT STARTED YET
+		synchronized (searches) {
+			searches.clear();
+
+			for (int i = 0; i < threads; i++) {
+				Search search = new Search(new ChessMatch(match), table);
+				search.setDepthOffset(i % 2);
+				searches.add(search);
+			}
+			started.addAll(searches);
+		}
+
+		table.newSearch();
+
+		List<CompletableFuture<SearchResult>> futures = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			Search search = started.get(i);
+			SearchLimits searchLimits = (i == 0) ? limits : helperLimits;
+			futures.add(CompletableFuture.supplyAsync(() -> search.iterate(searchLimits), executor));
+		}
+
+		// WHEN THE MAIN THREAD FINISHES, ITS HELPERS ARE STOPPED (ONLY THEM: BY THEN ANOTHER
+		// SEARCH MAY HAVE STARTED)
+		CompletableFuture<SearchResult> main = futures.get(0);
+		main.whenComplete((result, failure) -> {
+			for (Search search : started) {
+				search.stop();
+			}
+		});
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+			long nodes = 0L;
+			for (Search search : started) {
+				nodes += search.getNodes();
+			}
+
+			SearchResult result = main.join();
+			return new SearchResult(result.getPrincipalVariation(), result.getScore(), result.getDepth(), nodes,
+					(System.nanoTime() - start) / 1_000_000L);
+		});
+	}
+
+	// MAY BE CALLED FROM ANY THREAD
+	public void stop() {
+		synchronized (searches) {
+			for (Search search : searches) {
+				search.stop();
+			}
+		}
+	}
+
+	public void shutdown() {
+		stop();
+		executor.shutdownNow();
+	}
+
+	// PRINTS THE NODES PER SECOND OF THE SAME SEARCH WITH 1, 2, 4... UP TO "maxThreads" THREADS.
+	// USAGE: java chess.engine.ParallelSearch [milliseconds] [maxThreads] [hashMegabytes]
+	public static void main(String[] args) {
+		long millis = (args.length > 0) ? Long.parseLong(args[0]) : 5000L;
+		int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int megabytes = (args.length > 2) ? Integer.parseInt(args[2]) : 256;
+
+		ChessMatch match = new ChessMatch();
+		TranspositionTable table = new TranspositionTable(megabytes);
+		long baseline = 0L;
+
+		// WARM UP THE JIT, SO THE FIRST ROW IS NOT MEASURED ON INTERPRETED CODE
+		ParallelSearch warmUp = new ParallelSearch(1, table);
+		warmUp.search(match, SearchLimits.time(millis));
+		warmUp.shutdown();
+
+		System.out.println("threads  nodes/s       speedup  depth");
+
+		for (int threads = 1; threads <= maxThreads; threads = (threads == maxThreads) ? threads + 1
+				: Math.min(threads * 2, maxThreads)) {
+			ParallelSearch search = new ParallelSearch(threads, table);
+			table.clear();
+
+			SearchResult result = search.search(match, SearchLimits.time(millis));
+			search.shutdown();
+
+			long nps = result.getNodes() * 1000L / Math.max(result.getTimeMillis(), 1L);
+			if (threads == 1) {
+				baseline = nps;
+			}
+
+			System.out.println(String.format("%7d  %12d  %7.2f  %5d", threads, nps, (double) nps / Math.max(baseline, 1L),
+					result.getDepth()));
+		}
+	}
+}
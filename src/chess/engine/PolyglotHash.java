@@ -0,0 +1,107 @@
+package chess.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import boardgame.Board;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.Zobrist;
+
+// THE POSITION KEY USED BY POLYGLOT OPENING BOOKS. IT IS BUILT LIKE OUR ZOBRIST KEY, BUT FROM
+// POLYGLOT'S OWN TABLE OF 781 RANDOM NUMBERS (768 PIECE/SQUARE, 4 CASTLING, 8 EN PASSANT AND 1
+// FOR WHITE TO MOVE). THAT TABLE IS NOT SHIPPED HERE: load() READS IT FROM ANY FILE THAT
+// LISTS THE NUMBERS AS 16-DIGIT HEX LITERALS IN ORDER, SUCH AS THE Random64 ARRAY OF THE
+// POLYGLOT SOURCES.
+public class PolyglotHash implements ToLongFunction<ChessMatch> {
+
+	public static final int SIZE = 781;
+
+	private static final int CASTLING = 768;
+	private static final int EN_PASSANT = 772;
+	private static final int TURN = 780;
+
+	private static final Pattern HEX_LITERAL = Pattern.compile("0[xX]([0-9A-Fa-f]{16})");
+
+	private final long[] random;
+
+	public PolyglotHash(long[] random) {
+		if (random.length != SIZE) {
+			throw new IllegalArgumentException("Polyglot needs " + SIZE + " random numbers, got " + random.length);
+		}
+		this.random = random.clone();
+	}
+
+	public static PolyglotHash load(Path file) throws IOException {
+		String text = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+		Matcher matcher = HEX_LITERAL.matcher(text);
+		long[] random = new long[SIZE];
+		int count = 0;
+
+		while (matcher.find()) {
+			if (count == SIZE) {
+				throw new IOException("More than " + SIZE + " random numbers in " + file);
+			}
+			random[count++] = Long.parseUnsignedLong(matcher.group(1), 16);
+		}
+
+		if (count != SIZE) {
+			throw new IOException("Expected " + SIZE + " random numbers in " + file + ", found " + count);
+		}
+		return new PolyglotHash(random);
+	}
+
+	@Override
+	public long applyAsLong(ChessMatch match) {
+		Board board = match.getBoard();
+		long key = 0L;
+
+		// POLYGLOT PIECES ARE NUMBERED BLACK PAWN, WHITE PAWN, BLACK KNIGHT... IN THE SAME KIND
+		// ORDER AS ChessPiece, AND ITS ROWS COUNT UP FROM RANK 1
+		for (Color color : Color.values()) {
+			int white = (color == Color.WHITE) ? 1 : 0;
+
+			for (int kind = 0; kind < ChessPiece.KINDS; kind++) {
+				long pieces = board.getBitboard(color.ordinal(), kind);
+
+				while (pieces != 0L) {
+					int square = Long.numberOfTrailingZeros(pieces);
+					pieces &= pieces - 1;
+
+					int row = 7 - (square >>> 3);
+					key ^= random[64 * (2 * kind + white) + 8 * row + (square & 7)];
+				}
+			}
+		}
+
+		int rights = match.getCastlingRights();
+		if ((rights & Zobrist.WHITE_KING_SIDE) != 0) {
+			key ^= random[CASTLING];
+		}
+		if ((rights & Zobrist.WHITE_QUEEN_SIDE) != 0) {
+			key ^= random[CASTLING + 1];
+		}
+		if ((rights & Zobrist.BLACK_KING_SIDE) != 0) {
+			key ^= random[CASTLING + 2];
+		}
+		if ((rights & Zobrist.BLACK_QUEEN_SIDE) != 0) {
+			key ^= random[CASTLING + 3];
+		}
+
+		int column = match.getEnPassantColumn();
+		if (column >= 0) {
+			key ^= random[EN_PASSANT + column];
+		}
+
+		if (match.getCurrentPlayer() == Color.WHITE) {
+			key ^= random[TURN];
+		}
+		return key;
+	}
+}
@@ -0,0 +1,455 @@
+package chess.engine;
+
+import boardgame.Board;
+import boardgame.Piece;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.Color;
+import chess.LegalMoves;
+import chess.Move;
+import chess.Tablebase;
+import chess.TranspositionTable;
+
+// NEGAMAX ALPHA-BETA SEARCH WITH ITERATIVE DEEPENING, PLAYED OUT ON THE MATCH ITSELF WITH
+// ChessMatch.makeMove/undoMove. THE MATCH IS LEFT AS IT WAS FOUND, BUT IT MUST NOT BE TOUCHED
+// BY ANY OTHER THREAD WHILE A SEARCH RUNS.
+//
+// EACH ITERATION SEARCHES ONE PLY DEEPER, STARTING FROM THE BEST MOVES THE PREVIOUS ONE LEFT IN
+// THE TRANSPOSITION TABLE. LEAVES ARE RESOLVED BY A CAPTURE-ONLY QUIESCENCE SEARCH.
+public class Search {
+
+	public static final int MAX_PLY = 64;
+	public static final int MATE = 31000;
+
+	// SCORES AT OR BEYOND MATE_BOUND ARE MATES: FOUND IN THE TREE, AT MOST MAX_PLY AWAY, OR BY A
+	// TABLEBASE PROBED AT ANY PLY, UP TO Tablebase.MAX_DISTANCE PLIES FURTHER
+	public static final int MATE_BOUND = MATE - MAX_PLY - Tablebase.MAX_DISTANCE - 1;
+	public static final int INFINITY = 32000;
+
+	// TIME AND STOP REQUESTS ARE CHECKED EVERY 1024 NODES
+	private static final int CHECK_INTERVAL = 1023;
+
+	private static final int TT_MOVE_SCORE = 1_000_000;
+	private static final int CAPTURE_SCORE = 100_000;
+	private static final int PROMOTION_SCORE = 90_000;
+	private static final int KILLER_SCORE = 80_000;
+
+	private final ChessMatch match;
+	private final Board board;
+	private final LegalMoves legalMoves;
+	private final TranspositionTable table;
+
+	// ONE SLICE OF LegalMoves.MAX_MOVES PER PLY, WITH THE ORDERING SCORE OF EACH MOVE ALONGSIDE
+	private final int[] moves = new int[(MAX_PLY + 1) * LegalMoves.MAX_MOVES];
+	private final int[] moveScores = new int[(MAX_PLY + 1) * LegalMoves.MAX_MOVES];
+
+	// TRIANGULAR PRINCIPAL VARIATION TABLE: pv[ply] HOLDS THE BEST LINE FOUND FROM THAT PLY
+	private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+	private final int[] pvLength = new int[MAX_PLY + 1];
+
+	// TWO QUIET MOVES PER PLY THAT RECENTLY CAUSED A BETA CUTOFF
+	private final int[][] killers = new int[MAX_PLY + 1][2];
+
+	private volatile boolean stopped;
+	private boolean aborted;
+	private long nodes;
+	private long nodeLimit;
+	private long deadline;
+	private int depthOffset;
+	private Tablebase tablebase;
+
+	public Search(ChessMatch match) {
+		this(match, new TranspositionTable(16));
+	}
+
+	public Search(ChessMatch match, TranspositionTable table) {
+		this.match = match;
+		this.board = match.getBoard();
+		this.legalMoves = new LegalMoves(match);
+		this.table = table;
+	}
+
+	public TranspositionTable getTable() {
+		return table;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	// ASKS A RUNNING SEARCH TO RETURN ITS LAST COMPLETED RESULT AS SOON AS POSSIBLE
+	public void stop() {
+		stopped = true;
+	}
+
+	// SEARCHES THE MOVE OF THE SIDE TO MOVE IN THE MATCH UNTIL ONE OF THE LIMITS IS REACHED
+	public SearchResult search(SearchLimits limits) {
+		stopped = false;
+		table.newSearch();
+		return iterate(limits);
+	}
+
+	// HELPER THREADS OF A ParallelSearch START THIS MANY PLIES DEEPER, SO THEY REACH THE TABLE
+	// WITH RESULTS THE MAIN THREAD HAS NOT SEARCHED YET
+	void setDepthOffset(int depthOffset) {
+		this.depthOffset = depthOffset;
+	}
+
+	// ITERATIVE DEEPENING WITHOUT STARTING A NEW TABLE GENERATION, SO SEVERAL SEARCHES CAN SHARE
+	// ONE TABLE AS PART OF THE SAME SEARCH
+	SearchResult iterate(SearchLimits limits) {
+		long start = System.nanoTime();
+
+		aborted = false;
+		tablebase = match.getTablebase();
+		nodes = 0L;
+		nodeLimit = (limits.getNodes() > 0L) ? limits.getNodes() : Long.MAX_VALUE;
+		deadline = (limits.getTimeMillis() > 0L) ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+
+		for (int[] pair : killers) {
+			pair[0] = Move.NONE;
+			pair[1] = Move.NONE;
+		}
+
+		Color side = match.getCurrentPlayer();
+		SearchResult result = null;
+		int maxDepth = Math.min(limits.getDepth(), MAX_PLY - 1);
+
+		for (int depth = Math.min(1 + depthOffset, maxDepth); depth <= maxDepth; depth++) {
+			int score = negamax(side, depth, -INFINITY, INFINITY, 0, 0);
+
+			// AN UNFINISHED ITERATION IS THROWN AWAY, UNLESS THERE IS NOTHING ELSE TO REPORT
+			if (aborted && result != null) {
+				break;
+			}
+
+			int[] line = new int[pvLength[0]];
+			System.arraycopy(pv[0], 0, line, 0, line.length);
+
+			// STOPPED BEFORE THE FIRST MOVE WAS SEARCHED: ANY LEGAL MOVE BEATS NONE
+			if (aborted && line.length == 0) {
+				legalMoves.compute(side);
+
+				if (legalMoves.generate(moves, 0) > 0) {
+					line = new int[] { moves[0] };
+				}
+			}
+			result = new SearchResult(line, score, depth, nodes, (System.nanoTime() - start) / 1_000_000L);
+
+			// STOP AT THE END OF THE LIMITS, WHEN THERE IS NO MOVE, OR WHEN A MATE IS FOUND THAT
+			// A DEEPER SEARCH CANNOT SHORTEN
+			if (aborted || line.length == 0 || MATE - Math.abs(score) <= depth) {
+				break;
+			}
+		}
+		return result;
+	}
+
+	private int negamax(Color side, int depth, int alpha, int beta, int ply, int start) {
+		pvLength[ply] = 0;
+
+		if (checkLimits()) {
+			return 0;
+		}
+
+		// A POSITION REPEATED ONCE IN THE TREE IS SCORED AS A DRAW: THE SIDE THAT STEERED INTO IT
+		// CAN REPEAT IT AGAIN
+		if (ply > 0 && (match.getHalfMoveClock() >= 100 || match.isRepetition())) {
+			return 0;
+		}
+
+		legalMoves.compute(side);
+		boolean inCheck = legalMoves.inCheck();
+
+		// NEVER STOP THE SEARCH IN CHECK: THE QUIESCENCE SEARCH WOULD MISS QUIET EVASIONS
+		if (inCheck) {
+			depth++;
+		}
+
+		if (depth <= 0) {
+			return quiescence(side, alpha, beta, ply, start);
+		}
+
+		nodes++;
+
+		if (ply >= MAX_PLY - 1) {
+			return Evaluation.evaluate(match, side);
+		}
+
+		// A TABLEBASE HIT IS EXACT, INCLUDING THE DISTANCE TO MATE
+		if (tablebase != null && ply > 0) {
+			int result = tablebase.probe(match, side);
+
+			if (result != Tablebase.UNKNOWN) {
+				return tablebaseScore(result, ply);
+			}
+		}
+
+		long key = match.getZobristKey();
+		long entry = table.probe(key);
+		int ttMove = Move.NONE;
+
+		if (entry != 0L) {
+			ttMove = TranspositionTable.move(entry);
+
+			// OUTSIDE THE PRINCIPAL VARIATION A DEEP ENOUGH STORED RESULT ENDS THE NODE
+			if (ply > 0 && beta - alpha == 1 && TranspositionTable.depth(entry) >= depth) {
+				int score = fromTable(TranspositionTable.score(entry), ply);
+				int bound = TranspositionTable.bound(entry);
+
+				if (bound == TranspositionTable.EXACT
+						|| (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+						|| (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+					return score;
+				}
+			}
+		}
+
+		int end = legalMoves.generate(moves, start);
+
+		if (end == start) {
+			return inCheck ? -MATE + ply : 0;
+		}
+
+		scoreMoves(start, end, ttMove, ply);
+
+		Color opponent = match.opponent(side);
+		int originalAlpha = alpha;
+		int bestScore = -INFINITY;
+		int bestMove = Move.NONE;
+
+		for (int i = start; i < end; i++) {
+			int move = pickMove(i, end);
+			boolean quiet = isQuiet(move);
+
+			Piece capturedPiece = match.makeMove(move);
+			int score;
+
+			// PRINCIPAL VARIATION SEARCH: THE FIRST MOVE GETS THE FULL WINDOW, THE OTHERS ONLY HAVE
+			// TO PROVE THEY ARE NO BETTER, AND ARE SEARCHED AGAIN WHEN THEY ARE
+			if (i == start) {
+				score = -negamax(opponent, depth - 1, -beta, -alpha, ply + 1, end);
+			} else {
+				score = -negamax(opponent, depth - 1, -alpha - 1, -alpha, ply + 1, end);
+
+				if (score > alpha && score < beta) {
+					score = -negamax(opponent, depth - 1, -beta, -alpha, ply + 1, end);
+				}
+			}
+
+			match.undoMove(move, capturedPiece);
+
+			if (aborted) {
+				return 0;
+			}
+
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+
+				if (score > alpha) {
+					alpha = score;
+					updatePrincipalVariation(ply, move);
+
+					if (alpha >= beta) {
+						if (quiet && killers[ply][0] != move) {
+							killers[ply][1] = killers[ply][0];
+							killers[ply][0] = move;
+						}
+						break;
+					}
+				}
+			}
+		}
+
+		int bound = (bestScore >= beta) ? TranspositionTable.LOWER_BOUND
+				: (bestScore > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+		table.store(key, depth, bound, toTable(bestScore, ply), bestMove);
+
+		return bestScore;
+	}
+
+	// ONLY CAPTURES AND QUEEN PROMOTIONS ARE PLAYED, UNTIL THE POSITION IS QUIET. THE SIDE TO
+	// MOVE MAY ALWAYS "STAND PAT" ON THE STATIC EVALUATION, EXCEPT WHEN IN CHECK
+	private int quiescence(Color side, int alpha, int beta, int ply, int start) {
+		pvLength[ply] = 0;
+
+		if (checkLimits()) {
+			return 0;
+		}
+
+		nodes++;
+
+		legalMoves.compute(side);
+		boolean inCheck = legalMoves.inCheck();
+		int end = legalMoves.generate(moves, start);
+
+		if (inCheck && end == start) {
+			return -MATE + ply;
+		}
+
+		if (ply >= MAX_PLY - 1) {
+			return Evaluation.evaluate(match, side);
+		}
+
+		int bestScore = -INFINITY;
+
+		if (!inCheck) {
+			bestScore = Evaluation.evaluate(match, side);
+
+			if (bestScore >= beta) {
+				return bestScore;
+			}
+			if (bestScore > alpha) {
+				alpha = bestScore;
+			}
+
+			// DROP THE QUIET MOVES
+			int tactical = start;
+			for (int i = start; i < end; i++) {
+				int promotion = Move.promotion(moves[i]);
+
+				if (promotion == ChessPiece.QUEEN || (promotion == 0 && !isQuiet(moves[i]))) {
+					moves[tactical++] = moves[i];
+				}
+			}
+			end = tactical;
+		}
+
+		scoreMoves(start, end, Move.NONE, ply);
+
+		Color opponent = match.opponent(side);
+
+		for (int i = start; i < end; i++) {
+			int move = pickMove(i, end);
+
+			Piece capturedPiece = match.makeMove(move);
+			int score = -quiescence(opponent, -beta, -alpha, ply + 1, end);
+			match.undoMove(move, capturedPiece);
+
+			if (aborted) {
+				return 0;
+			}
+
+			if (score > bestScore) {
+				bestScore = score;
+
+				if (score > alpha) {
+					alpha = score;
+					updatePrincipalVariation(ply, move);
+
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+		return bestScore;
+	}
+
+	private boolean checkLimits() {
+		if (aborted) {
+			return true;
+		}
+		if (nodes >= nodeLimit || stopped || ((nodes & CHECK_INTERVAL) == 0 && System.nanoTime() >= deadline)) {
+			aborted = true;
+		}
+		return aborted;
+	}
+
+	private void updatePrincipalVariation(int ply, int move) {
+		pv[ply][0] = move;
+		System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+		pvLength[ply] = pvLength[ply + 1] + 1;
+	}
+
+	// ORDER: THE STORED BEST MOVE, CAPTURES (MOST VALUABLE VICTIM FIRST, THEN LEAST VALUABLE
+	// ATTACKER), PROMOTIONS, KILLER MOVES, THE REST
+	private void scoreMoves(int start, int end, int ttMove, int ply) {
+		for (int i = start; i < end; i++) {
+			int move = moves[i];
+			int score = 0;
+
+			if (move == ttMove) {
+				score = TT_MOVE_SCORE;
+			} else if (!isQuiet(move)) {
+				Piece victim = board.piece(Move.target(move));
+				int victimValue = (victim == null) ? Evaluation.PIECE_VALUES[ChessPiece.PAWN]
+						: Evaluation.PIECE_VALUES[victim.getKind()];
+				score = CAPTURE_SCORE + victimValue * 8 - board.piece(Move.source(move)).getKind()
+						+ Move.promotion(move);
+			} else if (Move.promotion(move) != 0) {
+				score = PROMOTION_SCORE + Move.promotion(move);
+			} else if (move == killers[ply][0]) {
+				score = KILLER_SCORE;
+			} else if (move == killers[ply][1]) {
+				score = KILLER_SCORE - 1;
+			}
+			moveScores[i] = score;
+		}
+	}
+
+	// SELECTION SORT ONE STEP AT A TIME: MOST NODES CUT OFF AFTER A MOVE OR TWO
+	private int pickMove(int index, int end) {
+		int best = index;
+
+		for (int i = index + 1; i < end; i++) {
+			if (moveScores[i] > moveScores[best]) {
+				best = i;
+			}
+		}
+
+		int move = moves[best];
+		int score = moveScores[best];
+		moves[best] = moves[index];
+		moveScores[best] = moveScores[index];
+		moves[index] = move;
+		moveScores[index] = score;
+
+		return move;
+	}
+
+	// NOT A CAPTURE. AN EN PASSANT CAPTURE IS A PAWN MOVING DIAGONALLY TO AN EMPTY SQUARE
+	private boolean isQuiet(int move) {
+		int source = Move.source(move);
+		int target = Move.target(move);
+
+		if (board.piece(target) != null) {
+			return false;
+		}
+		return board.piece(source).getKind() != ChessPiece.PAWN || (source & 7) == (target & 7);
+	}
+
+	private static int tablebaseScore(int result, int ply) {
+		switch (Tablebase.outcome(result)) {
+		case Tablebase.WIN:
+			return MATE - ply - Tablebase.distance(result);
+		case Tablebase.LOSS:
+			return -MATE + ply + Tablebase.distance(result);
+		default:
+			return 0;
+		}
+	}
+
+	// MATE SCORES ARE STORED AS DISTANCE FROM THE NODE, NOT FROM THE ROOT, SO THEY STAY RIGHT
+	// WHEN THE SAME POSITION IS REACHED AT ANOTHER PLY
+	private static int toTable(int score, int ply) {
+		if (score >= MATE_BOUND) {
+			return score + ply;
+		}
+		if (score <= -MATE_BOUND) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	private static int fromTable(int score, int ply) {
+		if (score >= MATE_BOUND) {
+			return score - ply;
+		}
+		if (score <= -MATE_BOUND) {
+			return score + ply;
+		}
+		return score;
+	}
+}
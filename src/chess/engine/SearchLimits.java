@@ -0,0 +1,52 @@
+package chess.engine;
+
+// WHEN A SEARCH STOPS: AFTER "depth" PLIES, AFTER "nodes" POSITIONS OR AFTER "timeMillis"
+// MILLISECONDS, WHICHEVER COMES FIRST. 0 LEAVES THE NODE OR TIME LIMIT OFF. THE SEARCH CAN
+// ALSO BE STOPPED FROM ANOTHER THREAD WITH Search.stop().
+public class SearchLimits {
+
+	private int depth;
+	private long nodes;
+	private long timeMillis;
+
+	public SearchLimits(int depth, long nodes, long timeMillis) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("The search depth must be at least 1");
+		}
+		if (nodes < 0 || timeMillis < 0) {
+			throw new IllegalArgumentException("Node and time limits cannot be negative");
+		}
+		this.depth = depth;
+		this.nodes = nodes;
+		this.timeMillis = timeMillis;
+	}
+
+	public static SearchLimits depth(int depth) {
+		return new SearchLimits(depth, 0L, 0L);
+	}
+
+	public static SearchLimits nodes(long nodes) {
+		return new SearchLimits(Search.MAX_PLY, nodes, 0L);
+	}
+
+	public static SearchLimits time(long timeMillis) {
+		return new SearchLimits(Search.MAX_PLY, 0L, timeMillis);
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "depth " + depth + ", nodes " + nodes + ", time " + timeMillis + " ms";
+	}
+}
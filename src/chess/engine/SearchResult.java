@@ -0,0 +1,72 @@
+package chess.engine;
+
+import chess.Move;
+
+// OUTCOME OF THE LAST COMPLETED ITERATION OF A SEARCH
+public class SearchResult {
+
+	private int[] principalVariation;
+	private int score;
+	private int depth;
+	private long nodes;
+	private long timeMillis;
+
+	public SearchResult(int[] principalVariation, int score, int depth, long nodes, long timeMillis) {
+		this.principalVariation = principalVariation;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.timeMillis = timeMillis;
+	}
+
+	// Move.NONE WHEN THE SIDE TO MOVE HAS NO LEGAL MOVE
+	public int getBestMove() {
+		return (principalVariation.length > 0) ? principalVariation[0] : Move.NONE;
+	}
+
+	public int[] getPrincipalVariation() {
+		return principalVariation.clone();
+	}
+
+	// CENTIPAWNS FOR THE SIDE TO MOVE, OR A MATE SCORE (SEE isMate)
+	public int getScore() {
+		return score;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	public boolean isMate() {
+		return Math.abs(score) >= Search.MATE_BOUND;
+	}
+
+	// MOVES UNTIL MATE, NEGATIVE WHEN THE SIDE TO MOVE IS THE ONE GETTING MATED
+	public int getMateIn() {
+		int plies = Search.MATE - Math.abs(score);
+		return (score > 0) ? (plies + 1) / 2 : -(plies / 2);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("depth ").append(depth);
+		sb.append(isMate() ? " score mate " + getMateIn() : " score cp " + score);
+		sb.append(" nodes ").append(nodes);
+		sb.append(" time ").append(timeMillis);
+		sb.append(" pv");
+
+		for (int move : principalVariation) {
+			sb.append(' ').append(Move.toString(move));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,44 @@
+package chess.pgn;
+
+import java.util.Map;
+
+import chess.ChessMatch;
+
+// ONE GAME READ BY PgnReader: ITS TAG PAIRS IN FILE ORDER, THE MAIN LINE AS Move VALUES, THE
+// RESULT TOKEN AND THE MATCH AFTER THE LAST MOVE
+public class PgnGame {
+
+	private final Map<String, String> tags;
+	private final int[] moves;
+	private final String result;
+	private final ChessMatch match;
+
+	public PgnGame(Map<String, String> tags, int[] moves, String result, ChessMatch match) {
+		this.tags = tags;
+		this.moves = moves;
+		this.result = result;
+		this.match = match;
+	}
+
+	public Map<String, String> getTags() {
+		return tags;
+	}
+
+	// null WHEN THE GAME HAS NO SUCH TAG
+	public String getTag(String name) {
+		return tags.get(name);
+	}
+
+	public int[] getMoves() {
+		return moves;
+	}
+
+	// "1-0", "0-1", "1/2-1/2" OR "*"
+	public String getResult() {
+		return result;
+	}
+
+	public ChessMatch getMatch() {
+		return match;
+	}
+}
@@ -0,0 +1,365 @@
+package chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import chess.ChessException;
+import chess.ChessMatch;
+import chess.LegalMoves;
+import chess.Move;
+
+// READS PGN GAMES ONE AT A TIME FROM A STREAM OF ANY SIZE. THE INPUT IS READ IN LARGE CHUNKS
+// INTO ONE BUFFER AND SCANNED BYTE BY BYTE, SO ONLY THE CURRENT GAME IS EVER HELD IN MEMORY.
+// MOVES ARE CUT INTO A REUSED char[] AND RESOLVED WITH San.parse, WITHOUT A String PER MOVE.
+//
+// ONLY THE MAIN LINE IS PLAYED, FROM THE FEN TAG WHEN THERE IS ONE: COMMENTS, VARIATIONS AND
+// NUMERIC ANNOTATIONS ARE SKIPPED. A GAME
+// WITH AN ILLEGAL MOVE MAKES next() THROW A ChessException, BUT THE REST OF THAT GAME IS
+// CONSUMED FIRST, SO THE CALLER MAY CATCH IT AND GO ON WITH THE NEXT GAME.
+public class PgnReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 20;
+	private static final int MAX_TOKEN = 64;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private final byte[] bytes = buffer.array();
+	private int position;
+	private int limit;
+	private boolean eof;
+
+	private int line = 1;
+	private long games;
+
+	private final char[] token = new char[MAX_TOKEN];
+	private byte[] text = new byte[256];
+	private int[] moves = new int[256];
+
+	public PgnReader(InputStream in) {
+		this(Channels.newChannel(in));
+	}
+
+	public PgnReader(ReadableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	// GAMES RETURNED OR REJECTED SO FAR
+	public long getGames() {
+		return games;
+	}
+
+	// THE NEXT GAME, OR null AT THE END OF THE INPUT
+	public PgnGame next() throws IOException {
+		Map<String, String> tags = new LinkedHashMap<>();
+
+		int c = skipSeparators();
+		while (c == '[') {
+			readTag(tags);
+			c = skipSeparators();
+		}
+
+		if (c < 0 && tags.isEmpty()) {
+			return null;
+		}
+
+		games++;
+		int gameLine = line;
+		String error = null;
+		ChessMatch match;
+
+		// A GAME FROM A SET-UP POSITION CARRIES IT IN ITS FEN TAG
+		try {
+			match = tags.containsKey("FEN") ? new ChessMatch(tags.get("FEN")) : new ChessMatch();
+		} catch (ChessException e) {
+			error = "Game " + games + " (line " + gameLine + "): " + e.getMessage();
+			match = new ChessMatch();
+		}
+
+		LegalMoves legalMoves = new LegalMoves(match);
+		String result = "*";
+		int count = 0;
+
+		// A GAME ENDS AT ITS RESULT, AT THE END OF THE INPUT, OR AT THE TAGS OF THE NEXT GAME
+		// WHEN THE RESULT IS MISSING
+		while (c >= 0 && c != '[') {
+			int length = readToken();
+			int end = Math.min(length, MAX_TOKEN);
+			int start = 0;
+
+			// A STRAY ']'
+			if (length == 0) {
+				read();
+				c = skipSeparators();
+				continue;
+			}
+
+			if (isResult(length)) {
+				result = new String(token, 0, length);
+				break;
+			}
+
+			// MOVE NUMBERS: "12." AND "12..." ALONE OR STUCK TO THE MOVE ("12.e4"). "0-0" HAS NO DOT
+			while (start < end && token[start] >= '0' && token[start] <= '9') {
+				start++;
+			}
+			if (start == end || token[start] != '.') {
+				start = 0;
+			}
+			while (start < end && token[start] == '.') {
+				start++;
+			}
+
+			if (start < end && error == null) {
+				int move = Move.NONE;
+
+				if (length <= MAX_TOKEN && !match.getCheckMate()) {
+					legalMoves.compute(match.getCurrentPlayer());
+					move = San.parse(match, legalMoves, token, start, length - start);
+				}
+
+				if (move == Move.NONE) {
+					error = "Game " + games + " (line " + gameLine + "): illegal move "
+							+ new String(token, start, end - start) + " on line " + line;
+				} else {
+					match.playMove(move);
+
+					if (count == moves.length) {
+						moves = Arrays.copyOf(moves, count * 2);
+					}
+					moves[count++] = move;
+				}
+			}
+
+			c = skipSeparators();
+		}
+
+		if (error != null) {
+			throw new ChessException(error);
+		}
+		return new PgnGame(tags, Arrays.copyOf(moves, count), result, match);
+	}
+
+	private boolean isResult(int length) {
+		switch (length) {
+		case 1:
+			return token[0] == '*';
+		case 3:
+			return (token[0] == '1' && token[2] == '0' || token[0] == '0' && token[2] == '1') && token[1] == '-';
+		case 7:
+			return new String(token, 0, 7).equals("1/2-1/2");
+		default:
+			return false;
+		}
+	}
+
+	// [Name "Value"], WITH \" AND \\ ESCAPED INSIDE THE VALUE
+	private void readTag(Map<String, String> tags) throws IOException {
+		read();
+		skipWhitespace();
+
+		int length = 0;
+		int c;
+		while ((c = peek()) > ' ' && c != '"' && c != ']') {
+			length = append(length, read());
+		}
+		String name = new String(text, 0, length, StandardCharsets.UTF_8);
+
+		skipWhitespace();
+		length = 0;
+		if (peek() == '"') {
+			read();
+
+			while ((c = read()) >= 0 && c != '"' && c != '\n') {
+				if (c == '\\') {
+					c = read();
+				}
+				length = append(length, c);
+			}
+		}
+
+		while ((c = read()) >= 0 && c != ']' && c != '\n') {
+		}
+		tags.put(name, new String(text, 0, length, StandardCharsets.UTF_8));
+	}
+
+	private int append(int length, int c) {
+		if (length == text.length) {
+			text = Arrays.copyOf(text, length * 2);
+		}
+		text[length] = (byte) c;
+		return length + 1;
+	}
+
+	// CUTS A MOVE OR RESULT INTO "token" AND RETURNS ITS LENGTH, WHICH MAY BE LARGER THAN THE
+	// BUFFER FOR A TOKEN THAT IS NOT A MOVE
+	private int readToken() throws IOException {
+		int length = 0;
+		int c;
+
+		while ((c = peek()) > ' ' && "{}();[]$%".indexOf(c) < 0) {
+			read();
+
+			if (length < MAX_TOKEN) {
+				token[length] = (char) c;
+			}
+			length++;
+		}
+		return length;
+	}
+
+	// SKIPS WHITESPACE, COMMENTS, VARIATIONS AND NUMERIC ANNOTATIONS, AND RETURNS THE NEXT
+	// CHARACTER WITHOUT READING IT (-1 AT THE END OF THE INPUT)
+	private int skipSeparators() throws IOException {
+		int c;
+
+		while ((c = peek()) >= 0) {
+			if (c <= ' ' || c == ')' || c == '}') {
+				read();
+			} else if (c == '{') {
+				skipComment();
+			} else if (c == ';' || c == '%') {
+				skipLine();
+			} else if (c == '(') {
+				skipVariation();
+			} else if (c == '$') {
+				read();
+
+				while ((c = peek()) >= '0' && c <= '9') {
+					read();
+				}
+			} else {
+				return c;
+			}
+		}
+		return -1;
+	}
+
+	private void skipWhitespace() throws IOException {
+		int c;
+
+		while ((c = peek()) >= 0 && c <= ' ') {
+			read();
+		}
+	}
+
+	private void skipComment() throws IOException {
+		int c;
+
+		while ((c = read()) >= 0 && c != '}') {
+		}
+	}
+
+	private void skipLine() throws IOException {
+		int c;
+
+		while ((c = read()) >= 0 && c != '\n') {
+		}
+	}
+
+	// VARIATIONS NEST, AND MAY HOLD COMMENTS WITH PARENTHESES IN THEM
+	private void skipVariation() throws IOException {
+		int depth = 0;
+		int c;
+
+		while ((c = peek()) >= 0) {
+			if (c == '{') {
+				skipComment();
+				continue;
+			}
+			if (c == ';') {
+				skipLine();
+				continue;
+			}
+
+			read();
+			if (c == '(') {
+				depth++;
+			} else if (c == ')' && --depth == 0) {
+				return;
+			}
+		}
+	}
+
+	private int peek() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+		return bytes[position] & 0xFF;
+	}
+
+	private int read() throws IOException {
+		if (position == limit && !fill()) {
+			return -1;
+		}
+
+		int c = bytes[position++] & 0xFF;
+		if (c == '\n') {
+			line++;
+		}
+		return c;
+	}
+
+	private boolean fill() throws IOException {
+		if (eof) {
+			return false;
+		}
+
+		int n;
+		do {
+			buffer.clear();
+			n = channel.read(buffer);
+		} while (n == 0);
+
+		if (n < 0) {
+			eof = true;
+			return false;
+		}
+		position = 0;
+		limit = n;
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	// READS EVERY GAME OF A FILE AND PRINTS HOW MANY GAMES AND MOVES PER SECOND WERE PLAYED.
+	// USAGE: java chess.pgn.PgnReader <file.pgn>
+	public static void main(String[] args) throws IOException {
+		long start = System.nanoTime();
+		long games = 0L;
+		long moves = 0L;
+		long rejected = 0L;
+
+		try (PgnReader reader = new PgnReader(FileChannel.open(Paths.get(args[0])))) {
+			while (true) {
+				try {
+					PgnGame game = reader.next();
+					if (game == null) {
+						break;
+					}
+					games++;
+					moves += game.getMoves().length;
+				} catch (ChessException e) {
+					rejected++;
+					System.out.println(e.getMessage());
+				}
+			}
+		}
+
+		double seconds = Math.max(System.nanoTime() - start, 1L) / 1e9;
+		System.out.println(String.format("%d games, %d moves, %d rejected in %.2f s: %.0f games/s, %.0f moves/s", games,
+				moves, rejected, seconds, games / seconds, moves / seconds));
+	}
+}
@@ -0,0 +1,153 @@
+package chess.pgn;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.LegalMoves;
+
+// WRITES GAMES AS PGN: THE SEVEN STANDARD TAGS FIRST (WITH "?" FOR THE ONES NOT GIVEN), THEN
+// ANY OTHER TAGS, THEN THE MOVES IN SAN, WRAPPED AT 80 COLUMNS. THE MOVES ARE REPLAYED FROM THE
+// POSITION IN THE FEN TAG, OR THE INITIAL POSITION, TO WRITE THEIR SAN AND CHECK SIGNS.
+public class PgnWriter implements Closeable, Flushable {
+
+	private static final int LINE_LENGTH = 80;
+	private static final String[] SEVEN_TAGS = { "Event", "Site", "Date", "Round", "White", "Black", "Result" };
+
+	private final Writer out;
+
+	public PgnWriter(OutputStream out) {
+		this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16));
+	}
+
+	public PgnWriter(Writer out) {
+		this.out = out;
+	}
+
+	public void write(PgnGame game) throws IOException {
+		write(game.getTags(), game.getMoves(), game.getResult());
+	}
+
+	// THE MOVES PLAYED IN "match". THE RESULT IS THE "Result" TAG WHEN GIVEN, OTHERWISE IT IS
+	// TAKEN FROM THE MATCH: A CHECKMATE, A DRAW, OR "*" FOR A GAME STILL GOING. A MATCH THAT DID
+	// NOT START FROM THE INITIAL POSITION GETS THE SetUp AND FEN TAGS
+	public void write(ChessMatch match, Map<String, String> tags) throws IOException {
+		String result = tags.get("Result");
+
+		if (!match.getInitialFen().equals(ChessMatch.START_FEN)) {
+			tags = new LinkedHashMap<>(tags);
+			tags.put("SetUp", "1");
+			tags.put("FEN", match.getInitialFen());
+		}
+
+		if (result == null) {
+			result = result(match);
+		}
+		write(tags, match.getMoveHistory(), result);
+	}
+
+	public static String result(ChessMatch match) {
+		if (match.getCheckMate()) {
+			return (match.getCurrentPlayer() == Color.WHITE) ? "1-0" : "0-1";
+		}
+		return match.getDraw() ? "1/2-1/2" : "*";
+	}
+
+	private void write(Map<String, String> tags, int[] moves, String result) throws IOException {
+		for (String name : SEVEN_TAGS) {
+			String value = name.equals("Result") ? result : tags.get(name);
+
+			if (value == null) {
+				value = name.equals("Date") ? "????.??.??" : "?";
+			}
+			writeTag(name, value);
+		}
+
+		for (Map.Entry<String, String> tag : tags.entrySet()) {
+			if (!isSevenTag(tag.getKey())) {
+				writeTag(tag.getKey(), tag.getValue());
+			}
+		}
+		out.write('\n');
+
+		ChessMatch match = tags.containsKey("FEN") ? new ChessMatch(tags.get("FEN")) : new ChessMatch();
+		LegalMoves legalMoves = new LegalMoves(match);
+		StringBuilder line = new StringBuilder(LINE_LENGTH + 16);
+
+		for (int i = 0; i < moves.length; i++) {
+			legalMoves.compute(match.getCurrentPlayer());
+			String san = San.toString(match, legalMoves, moves[i]);
+			boolean white = match.getCurrentPlayer() == Color.WHITE;
+			int number = (match.getTurn() + 1) / 2;
+
+			match.playMove(moves[i]);
+			if (match.getCheckMate()) {
+				san += '#';
+			} else if (match.getCheck()) {
+				san += '+';
+			}
+
+			if (white) {
+				append(line, number + ". " + san);
+			} else if (i == 0) {
+				append(line, number + "... " + san);
+			} else {
+				append(line, san);
+			}
+		}
+
+		append(line, result);
+		out.write(line.toString());
+		out.write("\n\n");
+	}
+
+	// ADDS A TOKEN TO THE CURRENT LINE, WRITING THE LINE OUT FIRST WHEN THE TOKEN DOES NOT FIT
+	private void append(StringBuilder line, String token) throws IOException {
+		if (line.length() > 0 && line.length() + 1 + token.length() > LINE_LENGTH) {
+			out.write(line.toString());
+			out.write('\n');
+			line.setLength(0);
+		}
+
+		if (line.length() > 0) {
+			line.append(' ');
+		}
+		line.append(token);
+	}
+
+	private void writeTag(String name, String value) throws IOException {
+		out.write('[');
+		out.write(name);
+		out.write(" \"");
+		out.write(value.replace("\\", "\\\\").replace("\"", "\\\""));
+		out.write("\"]\n");
+	}
+
+	private static boolean isSevenTag(String name) {
+		for (String tag : SEVEN_TAGS) {
+			if (tag.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
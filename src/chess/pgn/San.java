@@ -0,0 +1,213 @@
+package chess.pgn;
+
+import boardgame.Board;
+import chess.Bitboards;
+import chess.ChessMatch;
+import chess.ChessPiece;
+import chess.LegalMoves;
+import chess.Move;
+
+// STANDARD ALGEBRAIC NOTATION ("Nbd7", "exd5", "O-O", "e8=Q+"), READ AND WRITTEN AGAINST THE
+// POSITION OF A ChessMatch. BOTH DIRECTIONS USE A LegalMoves ALREADY COMPUTED FOR THE CURRENT
+// PLAYER, BECAUSE A PIECE THAT CANNOT MOVE (A PINNED KNIGHT) NEVER NEEDS TO BE TOLD APART
+public final class San {
+
+	private static final String PIECE_LETTERS = "PNBRQK";
+
+	private San() {
+	}
+
+	public static int parse(ChessMatch match, String san) {
+		LegalMoves legalMoves = new LegalMoves(match);
+		legalMoves.compute(match.getCurrentPlayer());
+		return parse(match, legalMoves, san.toCharArray(), 0, san.length());
+	}
+
+	// THE MOVE WRITTEN IN chars[offset, offset + length), OR Move.NONE WHEN IT IS NOT A LEGAL,
+	// UNAMBIGUOUS MOVE OF THE CURRENT PLAYER. CHECK SIGNS AND ANNOTATIONS ("+", "#", "!", "?")
+	// ARE IGNORED. NOTHING IS ALLOCATED, SO THIS IS THE READER'S INNER LOOP
+	public static int parse(ChessMatch match, LegalMoves legalMoves, char[] chars, int offset, int length) {
+		Board board = match.getBoard();
+		int side = match.getCurrentPlayer().ordinal();
+		int end = offset + length;
+
+		while (end > offset && "+#!?".indexOf(chars[end - 1]) >= 0) {
+			end--;
+		}
+
+		// ## -- CASTLING, WITH LETTERS OR ZEROS -- ##
+		if (end > offset && (chars[offset] == 'O' || chars[offset] == '0')) {
+			int kingSquare = Long.numberOfTrailingZeros(board.getBitboard(side, ChessPiece.KING));
+
+			if (isCastling(chars, offset, end, 3)) {
+				return legalMove(board, legalMoves, kingSquare, kingSquare + 2, 0);
+			}
+			if (isCastling(chars, offset, end, 5)) {
+				return legalMove(board, legalMoves, kingSquare, kingSquare - 2, 0);
+			}
+			return Move.NONE;
+		}
+
+		// ## -- PROMOTION, "e8=Q" OR "e8Q" -- ##
+		int promotion = 0;
+		if (end - offset >= 3 && chars[end - 2] >= '1' && chars[end - 2] <= '8' || end - offset >= 4 && chars[end - 2] == '=') {
+			promotion = PIECE_LETTERS.indexOf(Character.toUpperCase(chars[end - 1]));
+
+			if (promotion < ChessPiece.KNIGHT || promotion > ChessPiece.QUEEN) {
+				return Move.NONE;
+			}
+			end -= (chars[end - 2] == '=') ? 2 : 1;
+		}
+
+		if (end - offset < 2) {
+			return Move.NONE;
+		}
+
+		int targetColumn = chars[end - 2] - 'a';
+		int targetRank = chars[end - 1] - '1';
+		if (targetColumn < 0 || targetColumn > 7 || targetRank < 0 || targetRank > 7) {
+			return Move.NONE;
+		}
+		int target = (7 - targetRank) * 8 + targetColumn;
+
+		int kind = ChessPiece.PAWN;
+		int start = offset;
+		if (PIECE_LETTERS.indexOf(chars[offset]) > 0) {
+			kind = PIECE_LETTERS.indexOf(chars[offset]);
+			start++;
+		}
+
+		// ## -- DISAMBIGUATION: A SOURCE COLUMN, ROW OR BOTH -- ##
+		long candidates = board.getBitboard(side, kind);
+		boolean capture = false;
+
+		for (int i = start; i < end - 2; i++) {
+			char c = chars[i];
+
+			if (c >= 'a' && c <= 'h') {
+				candidates &= Bitboards.FILE_A << (c - 'a');
+			} else if (c >= '1' && c <= '8') {
+				candidates &= 0xFFL << (8 * ('8' - c));
+			} else if (c == 'x' || c == ':') {
+				capture = true;
+			} else if (c != '-') {
+				return Move.NONE;
+			}
+		}
+
+		// A PAWN THAT DOES NOT CAPTURE STAYS ON ITS COLUMN
+		if (kind == ChessPiece.PAWN && !capture && start == end - 2) {
+			candidates &= Bitboards.FILE_A << targetColumn;
+		}
+
+		boolean promotes = kind == ChessPiece.PAWN && (target < 8 || target >= 56);
+		if (promotes != (promotion != 0)) {
+			return Move.NONE;
+		}
+
+		int found = Move.NONE;
+		while (candidates != 0L) {
+			int source = Long.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+
+			if ((legalMoves.targets((ChessPiece) board.piece(source)) & Bitboards.bit(target)) != 0L) {
+				if (found != Move.NONE) {
+					return Move.NONE;
+				}
+				found = Move.encode(source, target, promotion);
+			}
+		}
+		return found;
+	}
+
+	private static boolean isCastling(char[] chars, int offset, int end, int length) {
+		if (end - offset != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = chars[offset + i];
+
+			if ((i % 2 == 0) ? c != chars[offset] : c != '-') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int legalMove(Board board, LegalMoves legalMoves, int source, int target, int promotion) {
+		ChessPiece piece = (ChessPiece) board.piece(source);
+
+		if (piece == null || target < 0 || target > 63 || (legalMoves.targets(piece) & Bitboards.bit(target)) == 0L) {
+			return Move.NONE;
+		}
+		return Move.encode(source, target, promotion);
+	}
+
+	public static String toString(ChessMatch match, int move) {
+		LegalMoves legalMoves = new LegalMoves(match);
+		legalMoves.compute(match.getCurrentPlayer());
+		return toString(match, legalMoves, move);
+	}
+
+	// THE SAN OF A LEGAL MOVE OF THE CURRENT PLAYER, BEFORE IT IS PLAYED. THE CHECK SIGN IS LEFT
+	// TO THE CALLER, WHICH KNOWS IT ONLY AFTER PLAYING THE MOVE
+	public static String toString(ChessMatch match, LegalMoves legalMoves, int move) {
+		Board board = match.getBoard();
+		int source = Move.source(move);
+		int target = Move.target(move);
+		ChessPiece piece = (ChessPiece) board.piece(source);
+		int kind = piece.getKind();
+
+		if (kind == ChessPiece.KING && target == source + 2) {
+			return "O-O";
+		}
+		if (kind == ChessPiece.KING && target == source - 2) {
+			return "O-O-O";
+		}
+
+		StringBuilder sb = new StringBuilder(8);
+		boolean capture = board.piece(target) != null || kind == ChessPiece.PAWN && (source & 7) != (target & 7);
+
+		if (kind == ChessPiece.PAWN) {
+			if (capture) {
+				sb.append((char) ('a' + (source & 7)));
+			}
+		} else {
+			sb.append(PIECE_LETTERS.charAt(kind));
+
+			// OTHER PIECES OF THE SAME KIND THAT CAN ALSO GO TO "target"
+			long others = board.getBitboard(piece.getSide(), kind) & ~Bitboards.bit(source);
+			boolean ambiguous = false;
+			boolean sameColumn = false;
+			boolean sameRow = false;
+
+			while (others != 0L) {
+				int other = Long.numberOfTrailingZeros(others);
+				others &= others - 1;
+
+				if ((legalMoves.targets((ChessPiece) board.piece(other)) & Bitboards.bit(target)) != 0L) {
+					ambiguous = true;
+					sameColumn |= (other & 7) == (source & 7);
+					sameRow |= (other >>> 3) == (source >>> 3);
+				}
+			}
+
+			if (ambiguous && (!sameColumn || sameRow)) {
+				sb.append((char) ('a' + (source & 7)));
+			}
+			if (ambiguous && sameColumn) {
+				sb.append((char) ('8' - (source >>> 3)));
+			}
+		}
+
+		if (capture) {
+			sb.append('x');
+		}
+		sb.append(Move.squareName(target));
+
+		if (Move.promotion(move) != 0) {
+			sb.append('=').append(PIECE_LETTERS.charAt(Move.promotion(move)));
+		}
+		return sb.toString();
+	}
+}
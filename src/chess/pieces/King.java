@@ -1,7 +1,7 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Bitboards;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
@@ -20,97 +20,51 @@ public class King extends ChessPiece {
 		return "K";
 	}
 
-	public boolean canMove(Position position) {
-		ChessPiece piece = (ChessPiece) getBoard().piece(position);
-
-		return piece == null || piece.getColor() != getColor();
+	@Override
+	public int getKind() {
+		return KING;
 	}
 
-	private boolean testRookCastling(Position position) {
-		ChessPiece p = (ChessPiece) getBoard().piece(position);
-		return p != null && p instanceof Rook && p.getColor() == getColor() && p.getMoveCount() == 0;
+	private boolean testRookCastling(int square) {
+		if ((getBoard().getBitboard(getSide(), ROOK) & Bitboards.bit(square)) == 0L) {
+			return false;
+		}
+		return ((ChessPiece) getBoard().piece(square)).getMoveCount() == 0;
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
-
-		boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-		Position p = new Position(0, 0);
-
-		// look up
-		p.setValues(position.getRow() - 1, position.getColumn());
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-		// look down
-		p.setValues(position.getRow() + 1, position.getColumn());
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-		// look left
-		p.setValues(position.getRow(), position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-		// look right
-		p.setValues(position.getRow(), position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-		// look nw
-		p.setValues(position.getRow() - 1, position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-		// look ne
-		p.setValues(position.getRow() - 1, position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
+	public long attacksBitboard() {
+		return Bitboards.kingAttacks(square);
+	}
 
-		// look sw
-		p.setValues(position.getRow() + 1, position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
+	@Override
+	public long possibleMovesBitboard() {
 
-		// look sw
-		p.setValues(position.getRow() + 1, position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
+		long moves = attacksBitboard() & ~ownPieces();
 
 		// ## --- SPECIAL MOVES --- ##
 		// ## --- CASTLING --- ##
-		if (getMoveCount() == 0 && !match.getCheck()) {
-			// SMALL CASTLING - KING SIDE ROOK
-			Position posT1 = new Position(position.getRow(), position.getColumn() + 3);
-			if (testRookCastling(posT1)) {
-				Position p1 = new Position(position.getRow(), position.getColumn() + 1);
-				Position p2 = new Position(position.getRow(), position.getColumn() + 2);
+		// THE KING MAY NOT CASTLE OUT OF CHECK OR THROUGH AN ATTACKED SQUARE. THE LANDING
+		// SQUARE IS VALIDATED LIKE ANY OTHER MOVE, BY TESTING CHECK AFTER MAKING IT
+		Color opponent = (getColor() == Color.WHITE) ? Color.BLACK : Color.WHITE;
 
-				if (getBoard().piece(p1) == null && getBoard().piece(p2) == null) {
-					matrix[position.getRow()][position.getColumn() + 2] = true;
-				}
+		if (getMoveCount() == 0 && !match.isSquareAttacked(square, opponent)) {
+			long occupied = getBoard().getOccupied();
+
+			// SMALL CASTLING - KING SIDE ROOK
+			if (testRookCastling(square + 3)
+					&& (occupied & (Bitboards.bit(square + 1) | Bitboards.bit(square + 2))) == 0L
+					&& !match.isSquareAttacked(square + 1, opponent)) {
+				moves |= Bitboards.bit(square + 2);
 			}
 
 			// BIG CASTLING - QUEEN SIDE ROOK
-			Position posT2 = new Position(position.getRow(), position.getColumn() - 4);
-			if (testRookCastling(posT2)) {
-				Position p1 = new Position(position.getRow(), position.getColumn() - 1);
-				Position p2 = new Position(position.getRow(), position.getColumn() - 2);
-				Position p3 = new Position(position.getRow(), position.getColumn() - 3);
-
-				if (getBoard().piece(p1) == null && getBoard().piece(p2) == null && getBoard().piece(p3) == null) {
-					matrix[position.getRow()][position.getColumn() - 2] = true;
-				}
+			if (testRookCastling(square - 4)
+					&& (occupied & (Bitboards.bit(square - 1) | Bitboards.bit(square - 2) | Bitboards.bit(square - 3))) == 0L
+					&& !match.isSquareAttacked(square - 1, opponent)) {
+				moves |= Bitboards.bit(square - 2);
 			}
 		}
-		return matrix;
+		return moves;
 	}
-}
\ No newline at end of file
+}
@@ -1,7 +1,7 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Bitboards;
 import chess.ChessPiece;
 import chess.Color;
 
@@ -15,61 +15,19 @@ public class Knight extends ChessPiece{
 	public String toString() {
 		return "N";
 	}
-	
-	public boolean canMove(Position position) {
-		ChessPiece piece = (ChessPiece) getBoard().piece(position);
 
-		return piece == null || piece.getColor() != getColor();
-	}
-	
 	@Override
-	public boolean[][] possibleMoves() {
-
-		boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
-
-		Position p = new Position(0, 0);
-
-		p.setValues(position.getRow() - 1, position.getColumn() - 2);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-		p.setValues(position.getRow() - 2, position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-		p.setValues(position.getRow() - 2, position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-		p.setValues(position.getRow() - 1, position.getColumn() + 2);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-		p.setValues(position.getRow() + 1, position.getColumn() + 2);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-		p.setValues(position.getRow() + 2, position.getColumn() + 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
-
-
-		p.setValues(position.getRow() + 2, position.getColumn() - 1);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
+	public int getKind() {
+		return KNIGHT;
+	}
 
-		p.setValues(position.getRow() + 1, position.getColumn() - 2);
-		if (getBoard().positionExists(p) && canMove(p)) {
-			matrix[p.getRow()][p.getColumn()] = true;
-		}
+	@Override
+	public long attacksBitboard() {
+		return Bitboards.knightAttacks(square);
+	}
 
-		return matrix;
+	@Override
+	public long possibleMovesBitboard() {
+		return attacksBitboard() & ~ownPieces();
 	}
 }
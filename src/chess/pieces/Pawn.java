@@ -1,7 +1,7 @@
 package chess.pieces;
 
 import boardgame.Board;
-import boardgame.Position;
+import chess.Bitboards;
 import chess.ChessMatch;
 import chess.ChessPiece;
 import chess.Color;
@@ -16,86 +16,53 @@ public class Pawn extends ChessPiece {
 	}
 
 	@Override
-	public boolean[][] possibleMoves() {
+	public int getKind() {
+		return PAWN;
+	}
+
+	@Override
+	public long attacksBitboard() {
+		return Bitboards.pawnAttacks(getColor(), square);
+	}
 
-		boolean[][] matrix = new boolean[getBoard().getRows()][getBoard().getColumns()];
+	@Override
+	public long possibleMovesBitboard() {
 
-		Position p = new Position(0, 0);
+		long empty = ~getBoard().getOccupied();
+		long attacks = attacksBitboard();
+		long moves = attacks & opponentPieces();
+		ChessPiece vulnerable = match.getEnPassantVulnerable();
 
 		if (getColor() == Color.WHITE) {
-			p.setValues(position.getRow() - 1, position.getColumn());
-			if (getBoard().positionExists(p) && !getBoard().hasPiece(p)) {
-				matrix[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() - 2, position.getColumn());
-			Position p2 = new Position(position.getRow() - 1, position.getColumn());
-			if (getBoard().positionExists(p) && !getBoard().hasPiece(p) && getBoard().positionExists(p2)
-					&& !getBoard().hasPiece(p2) && getMoveCount() == 0) {
+			long single = (Bitboards.bit(square) >>> 8) & empty;
+			moves |= single;
 
-				matrix[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() - 1, position.getColumn() - 1);
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-				matrix[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() - 1, position.getColumn() + 1);
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-				matrix[p.getRow()][p.getColumn()] = true;
+			if (getMoveCount() == 0) {
+				moves |= (single >>> 8) & empty;
 			}
 
 			// ## -- Special Move - En Passant White -- ##
-			if (position.getRow() == 3) {
-				Position left = new Position(position.getRow(), position.getColumn() - 1);
-				if (getBoard().positionExists(left) && isThereOpponentPiece(left)
-						&& getBoard().piece(left) == match.getEnPassantVulnerable()) {
-					matrix[left.getRow() - 1][left.getColumn()] = true;
-				}
-
-				Position right = new Position(position.getRow(), position.getColumn() + 1);
-				if (getBoard().positionExists(right) && isThereOpponentPiece(right)
-						&& getBoard().piece(right) == match.getEnPassantVulnerable()) {
-					matrix[right.getRow() - 1][right.getColumn()] = true;
-				}
+			if (square >>> 3 == 3 && vulnerable != null && vulnerable.getColor() != getColor()
+					&& (attacks & Bitboards.bit(vulnerable.getSquare() - 8)) != 0L) {
+				moves |= Bitboards.bit(vulnerable.getSquare() - 8);
 			}
 
 		} else {
-			p.setValues(position.getRow() + 1, position.getColumn());
-			if (getBoard().positionExists(p) && !getBoard().hasPiece(p)) {
-				matrix[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() + 2, position.getColumn());
-			Position p2 = new Position(position.getRow() + 1, position.getColumn());
-			if (getBoard().positionExists(p) && !getBoard().hasPiece(p) && getBoard().positionExists(p2)
-					&& !getBoard().hasPiece(p2) && getMoveCount() == 0) {
+			long single = (Bitboards.bit(square) << 8) & empty;
+			moves |= single;
 
-				matrix[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() + 1, position.getColumn() - 1);
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-				matrix[p.getRow()][p.getColumn()] = true;
-			}
-			p.setValues(position.getRow() + 1, position.getColumn() + 1);
-			if (getBoard().positionExists(p) && isThereOpponentPiece(p)) {
-				matrix[p.getRow()][p.getColumn()] = true;
+			if (getMoveCount() == 0) {
+				moves |= (single << 8) & empty;
 			}
 
 			// ## -- Special Move - En Passant Black -- ##
-			if (position.getRow() == 4) {
-				Position left = new Position(position.getRow(), position.getColumn() - 1);
-				if (getBoard().positionExists(left) && isThereOpponentPiece(left)
-						&& getBoard().piece(left) == match.getEnPassantVulnerable()) {
-					matrix[left.getRow() + 1][left.getColumn()] = true;
-				}
-
-				Position right = new Position(position.getRow(), position.getColumn() + 1);
-				if (getBoard().positionExists(right) && isThereOpponentPiece(right)
-						&& getBoard().piece(right) == match.getEnPassantVulnerable()) {
-					matrix[right.getRow() + 1][right.getColumn()] = true;
-				}
+			if (square >>> 3 == 4 && vulnerable != null && vulnerable.getColor() != getColor()
+					&& (attacks & Bitboards.bit(vulnerable.getSquare() + 8)) != 0L) {
+				moves |= Bitboards.bit(vulnerable.getSquare() + 8);
 			}
 		}
 
-		return matrix;
+		return moves;
 	}
 
 	@Override
@@ -0,0 +1,239 @@
+package chess.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import chess.ChessException;
+import chess.ChessMatch;
+
+// HOSTS MANY MATCHES IN ONE JVM, EACH UNDER A NUMERIC ID. EVERY MATCH IS A SMALL ACTOR: A QUEUE
+// OF TASKS THAT ONE THREAD AT A TIME DRAINS ON A SHARED POOL. TASKS FOR THE SAME MATCH RUN ONE
+// AFTER THE OTHER, IN ORDER, SO ChessMatch NEEDS NO LOCK; TASKS FOR DIFFERENT MATCHES RUN IN
+// PARALLEL ON ALL THE POOL'S THREADS. A MATCH WITH NOTHING TO DO HOLDS NO THREAD.
+//
+// A MATCH LEFT IDLE IS PARKED: ONLY ITS STARTING FEN AND ITS MOVES ARE KEPT, AND THE BOARD IS
+// REBUILT BY THE NEXT TASK. FINISHED MATCHES ARE DROPPED AFTER A WHILE WITHOUT ANY TASK.
+public class MatchService {
+
+	// TASKS ONE MATCH MAY RUN BEFORE GIVING ITS THREAD TO THE NEXT MATCH
+	private static final int BATCH = 64;
+
+	private final ConcurrentHashMap<Long, MatchActor> matches = new ConcurrentHashMap<>();
+	private final AtomicLong nextId = new AtomicLong(1L);
+	private final ExecutorService executor;
+	private final ScheduledExecutorService sweeper;
+	private final long idleNanos;
+	private final long finishedNanos;
+
+	// ONE THREAD PER PROCESSOR; IDLE MATCHES ARE PARKED AND FINISHED ONES DROPPED AFTER A MINUTE
+	public MatchService() {
+		this(Runtime.getRuntime().availableProcessors(), 60_000L, 60_000L);
+	}
+
+	public MatchService(int threads, long idleMillis, long finishedMillis) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("The service needs at least one thread");
+		}
+
+		this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+		this.finishedNanos = TimeUnit.MILLISECONDS.toNanos(finishedMillis);
+		this.executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "match");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "match-sweeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		long period = Math.max(Math.min(idleMillis, finishedMillis) / 2, 1L);
+		sweeper.scheduleAtFixedRate(this::sweep, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	public long create() {
+		return create(ChessMatch.START_FEN);
+	}
+
+	// THE FEN IS READ HERE, SO AN INVALID ONE THROWS A ChessException TO THE CALLER
+	public long create(String fen) {
+		long id = nextId.getAndIncrement();
+		matches.put(id, new MatchActor(new ChessMatch(fen)));
+		return id;
+	}
+
+	// RUNS "action" ON THE MATCH, AFTER EVERY TASK SUBMITTED BEFORE IT FOR THE SAME MATCH. THE
+	// ACTION MUST NOT KEEP THE ChessMatch, WHICH ONLY BELONGS TO IT WHILE IT RUNS
+	public <T> CompletableFuture<T> submit(long id, Function<ChessMatch, T> action) {
+		return actor(id).submit(action);
+	}
+
+	// PLAYS A MOVE (A Move VALUE) AND COMPLETES WITH THE FEN OF THE NEW POSITION, OR WITH THE
+	// ChessException OF AN ILLEGAL MOVE
+	public CompletableFuture<String> play(long id, int move) {
+		return submit(id, match -> {
+			match.playMove(move);
+			return match.toFen();
+		});
+	}
+
+	public CompletableFuture<String> fen(long id) {
+		return submit(id, ChessMatch::toFen);
+	}
+
+	public boolean contains(long id) {
+		return matches.containsKey(id);
+	}
+
+	// TASKS ALREADY SUBMITTED STILL RUN; LATER ONES ARE REFUSED
+	public boolean remove(long id) {
+		return matches.remove(id) != null;
+	}
+
+	public int size() {
+		return matches.size();
+	}
+
+	public void shutdown() {
+		sweeper.shutdownNow();
+		executor.shutdown();
+	}
+
+	private MatchActor actor(long id) {
+		MatchActor actor = matches.get(id);
+
+		if (actor == null) {
+			throw new ChessException("There is no match with id " + id + "!");
+		}
+		return actor;
+	}
+
+	// PARKS THE MATCHES LEFT IDLE AND DROPS THE FINISHED ONES NOBODY LOOKED AT FOR A WHILE
+	private void sweep() {
+		long now = System.nanoTime();
+
+		for (Map.Entry<Long, MatchActor> entry : matches.entrySet()) {
+			MatchActor actor = entry.getValue();
+			long idle = now - actor.lastAccess;
+
+			if (actor.finished && idle > finishedNanos) {
+				matches.remove(entry.getKey(), actor);
+			} else if (idle > idleNanos && !actor.parked) {
+				actor.park();
+			}
+		}
+	}
+
+	private final class MatchActor implements Runnable {
+
+		private final ConcurrentLinkedQueue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		// ONLY TOUCHED BY THE TASK RUNNING FOR THIS MATCH. THE HAND-OVER THROUGH "scheduled"
+		// MAKES EACH TASK SEE WHAT THE ONE BEFORE IT WROTE
+		private ChessMatch match;
+		private String initialFen;
+		private int[] moves;
+		private boolean drawClaimed;
+
+		private volatile long lastAccess = System.nanoTime();
+		private volatile boolean finished;
+		private volatile boolean parked;
+
+		// CHECKMATE, STALEMATE OR A CLAIMED DRAW; A DRAW THAT IS ONLY THERE TO CLAIM DOES NOT
+		// FINISH THE MATCH
+		MatchActor(ChessMatch match) {
+			this.match = match;
+			this.finished = match.getCheckMate() || match.getDraw();
+		}
+
+		<T> CompletableFuture<T> submit(Function<ChessMatch, T> action) {
+			CompletableFuture<T> future = new CompletableFuture<>();
+
+			enqueue(() -> {
+				try {
+					ChessMatch m = match();
+					future.complete(action.apply(m));
+					finished = m.getCheckMate() || m.getDraw();
+				} catch (Throwable e) {
+					// AN Error TOO GOES TO THE CALLER, NOT TO THE POOL THREAD RUNNING THE MAILBOX
+					future.completeExceptionally(e);
+				} finally {
+					lastAccess = System.nanoTime();
+				}
+			});
+			return future;
+		}
+
+		// KEEPS ONLY WHAT IS NEEDED TO REBUILD THE MATCH
+		void park() {
+			parked = true;
+
+			enqueue(() -> {
+				if (match != null && parked) {
+					initialFen = match.getInitialFen();
+					moves = match.getMoveHistory();
+					drawClaimed = match.getDraw() && !match.isAutomaticDraw();
+					match = null;
+				}
+			});
+		}
+
+		private ChessMatch match() {
+			if (match == null) {
+				match = new ChessMatch(initialFen);
+
+				for (int move : moves) {
+					match.playMove(move);
+				}
+				if (drawClaimed) {
+					match.claimDraw();
+				}
+				initialFen = null;
+				moves = null;
+			}
+			parked = false;
+			return match;
+		}
+
+		private void enqueue(Runnable task) {
+			mailbox.add(task);
+
+			if (scheduled.compareAndSet(false, true)) {
+				executor.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				for (int i = 0; i < BATCH; i++) {
+					Runnable task = mailbox.poll();
+
+					if (task == null) {
+						break;
+					}
+					task.run();
+				}
+			} finally {
+				// EVEN AFTER A TASK THAT THREW, OR THE MATCH WOULD NEVER BE SCHEDULED AGAIN
+				scheduled.set(false);
+
+				// A TASK ADDED AFTER THE LAST poll() FOUND "scheduled" STILL SET, SO IT IS PICKED UP HERE
+				if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+					executor.execute(this);
+				}
+			}
+		}
+	}
+}
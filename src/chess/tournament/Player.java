@@ -0,0 +1,18 @@
+package chess.tournament;
+
+import java.util.Random;
+
+import chess.ChessMatch;
+
+// ONE SIDE OF A SELF-PLAY GAME. A PLAYER IS CREATED FOR EACH GAME AND ONLY USED BY THE THREAD
+// PLAYING IT, SO IT MAY KEEP STATE BETWEEN MOVES OF THAT GAME.
+public interface Player {
+
+	// NAME WRITTEN IN THE White AND Black TAGS
+	String getName();
+
+	// THE MOVE (A Move VALUE) FOR THE SIDE TO MOVE OF "match", WHICH HAS AT LEAST ONE LEGAL MOVE.
+	// THE MATCH MUST BE LEFT AS IT WAS FOUND. "random" BELONGS TO THE GAME AND IS THE ONLY SOURCE
+	// OF CHANCE, SO A GAME IS REPEATED EXACTLY FROM ITS SEED
+	int chooseMove(ChessMatch match, Random random);
+}
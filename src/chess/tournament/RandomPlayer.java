@@ -0,0 +1,28 @@
+package chess.tournament;
+
+import java.util.Random;
+
+import chess.ChessMatch;
+import chess.LegalMoves;
+
+// PLAYS ANY LEGAL MOVE, ALL WITH THE SAME CHANCE
+public class RandomPlayer implements Player {
+
+	private final int[] moves = new int[LegalMoves.MAX_MOVES];
+	private LegalMoves legalMoves;
+
+	@Override
+	public String getName() {
+		return "random";
+	}
+
+	@Override
+	public int chooseMove(ChessMatch match, Random random) {
+		if (legalMoves == null) {
+			legalMoves = new LegalMoves(match);
+		}
+
+		legalMoves.compute(match.getCurrentPlayer());
+		return moves[random.nextInt(legalMoves.generate(moves, 0))];
+	}
+}
@@ -0,0 +1,65 @@
+package chess.tournament;
+
+import java.util.Random;
+
+import chess.ChessMatch;
+import chess.Move;
+import chess.TranspositionTable;
+import chess.engine.OpeningBook;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+
+// PLAYS THE BEST MOVE OF A SINGLE-THREADED SEARCH TO A FIXED DEPTH. WITH ITS OWN TABLE, STARTED
+// EMPTY FOR EVERY GAME, THE SAME POSITION ALWAYS GETS THE SAME MOVE, WHATEVER ELSE RUNS. WITH A
+// BOOK, A POSITION IN THE BOOK GETS A BOOK MOVE, PICKED WITH THE GAME'S Random, AND NO SEARCH
+public class SearchPlayer implements Player {
+
+	private static final int HASH_MEGABYTES = 4;
+
+	private final int depth;
+	private final OpeningBook book;
+	private Search search;
+	private ChessMatch searchMatch;
+
+	public SearchPlayer(int depth) {
+		this(depth, null);
+	}
+
+	// "book" MAY BE null. IT IS ONLY USED BY THE THREAD PLAYING THIS PLAYER'S GAME
+	public SearchPlayer(int depth, OpeningBook book) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("The search depth must be at least 1");
+		}
+		this.depth = depth;
+		this.book = book;
+	}
+
+	@Override
+	public String getName() {
+		return (book == null) ? "depth " + depth : "depth " + depth + " with book";
+	}
+
+	// THE SEARCH PLAYS ON THE MATCH ITSELF, SO IT IS BOUND TO THE FIRST MATCH IT IS GIVEN
+	@Override
+	public int chooseMove(ChessMatch match, Random random) {
+		if (book != null) {
+			int move = book.move(match, random);
+
+			if (move != Move.NONE) {
+				return move;
+			}
+		}
+
+		if (search == null || searchMatch != match) {
+			search = new Search(match, new TranspositionTable(HASH_MEGABYTES));
+			searchMatch = match;
+		}
+
+		int move = search.search(SearchLimits.depth(depth)).getBestMove();
+
+		if (move == Move.NONE) {
+			throw new IllegalStateException("The search found no move in " + match.toFen());
+		}
+		return move;
+	}
+}
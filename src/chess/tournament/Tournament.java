@@ -0,0 +1,217 @@
+package chess.tournament;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import chess.ChessMatch;
+import chess.Color;
+import chess.engine.OpeningBook;
+import chess.pgn.PgnWriter;
+
+// PLAYS MANY COMPLETE GAMES BETWEEN TWO PLAYERS WITHOUT A HUMAN, ONE GAME PER THREAD OF A FIXED
+// POOL, FOR LOAD-TESTING THE RULES AND COMPARING PLAYING STRENGTH. THE PLAYERS SWAP COLORS
+// EVERY GAME. A GAME ENDS AT CHECKMATE, STALEMATE, THREEFOLD REPETITION OR THE FIFTY-MOVE RULE.
+//
+// EVERY GAME GETS ITS OWN Random, SEEDED FROM THE BASE SEED AND ITS NUMBER, AND ITS OWN PLAYERS,
+// SO A RUN WITH THE SAME SEED PLAYS THE SAME GAMES ON ANY NUMBER OF THREADS. THE FIRST PLIES ARE
+// RANDOM, SO TWO DETERMINISTIC PLAYERS DO NOT PLAY THE SAME GAME OVER AND OVER. THE GAMES ARE
+// WRITTEN AND COUNTED IN ORDER; ONLY A FEW PER THREAD ARE EVER WAITING TO BE WRITTEN.
+public class Tournament {
+
+	public static final int DEFAULT_OPENING_PLIES = 4;
+
+	// GAMES STARTED AHEAD OF THE NEXT ONE TO BE WRITTEN, PER THREAD
+	private static final int GAMES_AHEAD = 4;
+
+	private final Supplier<Player> first;
+	private final Supplier<Player> second;
+	private final String firstName;
+	private final String secondName;
+	private final int games;
+	private final long seed;
+	private final int threads;
+	private final int openingPlies;
+
+	public Tournament(Supplier<Player> first, Supplier<Player> second, int games, long seed) {
+		this(first, second, games, seed, Runtime.getRuntime().availableProcessors(), DEFAULT_OPENING_PLIES);
+	}
+
+	public Tournament(Supplier<Player> first, Supplier<Player> second, int games, long seed, int threads,
+			int openingPlies) {
+		if (games < 0 || openingPlies < 0) {
+			throw new IllegalArgumentException("The number of games and of opening plies cannot be negative");
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException("A tournament needs at least one thread");
+		}
+		this.first = first;
+		this.second = second;
+		this.firstName = first.get().getName();
+		this.secondName = second.get().getName();
+		this.games = games;
+		this.seed = seed;
+		this.threads = threads;
+		this.openingPlies = openingPlies;
+	}
+
+	// PLAYS EVERY GAME, WRITES EACH ONE TO "out" (WHEN NOT null) AND RETURNS THE TOTALS
+	public TournamentResult run(PgnWriter out) throws IOException {
+		ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "tournament");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Queue<CompletableFuture<ChessMatch>> pending = new ArrayDeque<>();
+		long start = System.nanoTime();
+		int started = 0;
+		int wins = 0;
+		int draws = 0;
+		int losses = 0;
+		long plies = 0L;
+
+		try {
+			for (int game = 0; game < games; game++) {
+				while (started < games && started - game < threads * GAMES_AHEAD) {
+					int number = started++;
+					pending.add(CompletableFuture.supplyAsync(() -> play(number), executor));
+				}
+
+				ChessMatch match;
+				try {
+					match = pending.remove().join();
+				} catch (CompletionException e) {
+					throw new IllegalStateException("Game " + (game + 1) + " failed", e.getCause());
+				}
+
+				String result = PgnWriter.result(match);
+				boolean firstIsWhite = game % 2 == 0;
+
+				if (result.equals("1/2-1/2")) {
+					draws++;
+				} else if (result.equals("1-0") == firstIsWhite) {
+					wins++;
+				} else {
+					losses++;
+				}
+				plies += match.getMoveHistory().length;
+
+				if (out != null) {
+					out.write(match, tags(game, firstIsWhite));
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		return new TournamentResult(games, wins, draws, losses, plies, (System.nanoTime() - start) / 1_000_000L);
+	}
+
+	// GAME "number" FROM THE START TO ITS END. THE FIRST PLAYER HAS WHITE IN THE EVEN GAMES
+	private ChessMatch play(int number) {
+		Random random = new Random(seed + number * 0x9E3779B97F4A7C15L);
+		Player[] players = new Player[2];
+		players[Color.WHITE.ordinal()] = (number % 2 == 0) ? first.get() : second.get();
+		players[Color.BLACK.ordinal()] = (number % 2 == 0) ? second.get() : first.get();
+
+		ChessMatch match = new ChessMatch();
+		RandomPlayer opening = new RandomPlayer();
+
+		for (int ply = 0; !match.getCheckMate() && !match.getDraw(); ply++) {
+			// ENGINES CLAIM EVERY DRAW THEY ARE OFFERED
+			if (match.canClaimDraw()) {
+				match.claimDraw();
+				break;
+			}
+
+			Player player = (ply < openingPlies) ? opening : players[match.getCurrentPlayer().ordinal()];
+			match.playMove(player.chooseMove(match, random));
+		}
+		return match;
+	}
+
+	private Map<String, String> tags(int game, boolean firstIsWhite) {
+		Map<String, String> tags = new LinkedHashMap<>();
+		tags.put("Event", "Self-play");
+		tags.put("Site", "Jchess");
+		tags.put("Round", String.valueOf(game + 1));
+		tags.put("White", firstIsWhite ? firstName : secondName);
+		tags.put("Black", firstIsWhite ? secondName : firstName);
+		return tags;
+	}
+
+	// "random" OR "depth:N"
+	public static Supplier<Player> player(String spec) {
+		return player(spec, null);
+	}
+
+	// "random" OR "depth:N". A SEARCH PLAYER PLAYS FROM "book" (WHEN NOT null) WHILE IT CAN,
+	// THROUGH A VIEW OF ITS OWN
+	public static Supplier<Player> player(String spec, OpeningBook book) {
+		if (spec.equals("random")) {
+			return RandomPlayer::new;
+		}
+
+		if (spec.startsWith("depth:")) {
+			int depth;
+			try {
+				depth = Integer.parseInt(spec.substring(6));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid depth: " + spec);
+			}
+			return () -> new SearchPlayer(depth, (book == null) ? null : new OpeningBook(book));
+		}
+		throw new IllegalArgumentException("Unknown player: " + spec + " (use random or depth:N)");
+	}
+
+	// PLAYS A TOURNAMENT AND PRINTS ITS TOTALS, WRITING THE GAMES TO A PGN FILE WHEN ONE IS GIVEN
+	// ("-" FOR NONE). THE SEARCH PLAYERS USE THE OPENING BOOK WHEN ONE IS GIVEN (SEE
+	// OpeningBook.open); ITS WEIGHTED CHOICES THEN VARY THE GAMES INSTEAD OF RANDOM PLIES. USAGE:
+	// java chess.tournament.Tournament <player> <player> [games] [seed] [file.pgn] [book.bin]
+	// WHERE A PLAYER IS "random" OR "depth:N"
+	public static void main(String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println(
+					"Usage: java chess.tournament.Tournament <player> <player> [games] [seed] [file.pgn] [book.bin]");
+			return;
+		}
+
+		int games = (args.length > 2) ? Integer.parseInt(args[2]) : 1000;
+		long seed = (args.length > 3) ? Long.parseLong(args[3]) : 1L;
+		String pgn = (args.length > 4 && !args[4].equals("-")) ? args[4] : null;
+		OpeningBook book = (args.length > 5) ? OpeningBook.open(Paths.get(args[5])) : null;
+		TournamentResult result;
+
+		try {
+			Tournament tournament = new Tournament(player(args[0], book), player(args[1], book), games, seed,
+					Runtime.getRuntime().availableProcessors(), (book == null) ? DEFAULT_OPENING_PLIES : 0);
+
+			if (pgn != null) {
+				try (OutputStream file = Files.newOutputStream(Paths.get(pgn));
+						PgnWriter out = new PgnWriter(file)) {
+					result = tournament.run(out);
+				}
+			} else {
+				result = tournament.run(null);
+			}
+		} finally {
+			if (book != null) {
+				book.close();
+			}
+		}
+
+		System.out.println(args[0] + " vs " + args[1] + ", seed " + seed);
+		System.out.println(result);
+	}
+}
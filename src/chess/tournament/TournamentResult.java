@@ -0,0 +1,64 @@
+package chess.tournament;
+
+// TOTALS OF A TOURNAMENT, SCORED FROM THE FIRST PLAYER'S SIDE
+public class TournamentResult {
+
+	private final int games;
+	private final int wins;
+	private final int draws;
+	private final int losses;
+	private final long plies;
+	private final long timeMillis;
+
+	public TournamentResult(int games, int wins, int draws, int losses, long plies, long timeMillis) {
+		this.games = games;
+		this.wins = wins;
+		this.draws = draws;
+		this.losses = losses;
+		this.plies = plies;
+		this.timeMillis = timeMillis;
+	}
+
+	public int getGames() {
+		return games;
+	}
+
+	public int getWins() {
+		return wins;
+	}
+
+	public int getDraws() {
+		return draws;
+	}
+
+	public int getLosses() {
+		return losses;
+	}
+
+	public long getPlies() {
+		return plies;
+	}
+
+	public long getTimeMillis() {
+		return timeMillis;
+	}
+
+	public double getGamesPerSecond() {
+		return games * 1000.0 / Math.max(timeMillis, 1L);
+	}
+
+	public double getAveragePlies() {
+		return (games == 0) ? 0.0 : (double) plies / games;
+	}
+
+	// POINTS OF THE FIRST PLAYER OVER THE POINTS PLAYED: 1 FOR A WIN, 1/2 FOR A DRAW
+	public double getScore() {
+		return (games == 0) ? 0.0 : (wins + draws / 2.0) / games;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d games: +%d =%d -%d (%.1f%%), %.1f games/s, %.1f plies per game, %d ms", games, wins,
+				draws, losses, getScore() * 100.0, getGamesPerSecond(), getAveragePlies(), timeMillis);
+	}
+}
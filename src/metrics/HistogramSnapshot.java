@@ -0,0 +1,66 @@
+package metrics;
+
+// THE STATE OF A LatencyHistogram AT ONE MOMENT, IN NANOSECONDS
+public final class HistogramSnapshot {
+
+	private final String name;
+	private final long[] buckets;
+	private final long count;
+	private final long total;
+	private final long max;
+
+	HistogramSnapshot(String name, long[] buckets, long count, long total, long max) {
+		this.name = name;
+		this.buckets = buckets;
+		this.count = count;
+		this.total = total;
+		this.max = max;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return (count == 0L) ? 0.0 : (double) total / count;
+	}
+
+	// THE VALUE "percentile" PERCENT OF THE RECORDED VALUES ARE AT OR BELOW, E.G. 99.9. LIKE ANY
+	// VALUE OF THE HISTOGRAM, IT MAY BE UP TO ABOUT 3% HIGH
+	public long getPercentile(double percentile) {
+		long recorded = 0L;
+
+		for (long bucket : buckets) {
+			recorded += bucket;
+		}
+		if (recorded == 0L) {
+			return 0L;
+		}
+
+		long rank = Math.max(1L, (long) Math.ceil(recorded * Math.min(percentile, 100.0) / 100.0));
+		long seen = 0L;
+
+		for (int i = 0; i < buckets.length; i++) {
+			seen += buckets[i];
+
+			if (seen >= rank) {
+				return Math.min(LatencyHistogram.highestValue(i), max);
+			}
+		}
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: count %d, mean %.0f ns, p50 %d ns, p99 %d ns, p99.9 %d ns, max %d ns", name, count,
+				getMean(), getPercentile(50.0), getPercentile(99.0), getPercentile(99.9), max);
+	}
+}
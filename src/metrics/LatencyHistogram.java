@@ -0,0 +1,88 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// DURATIONS IN NANOSECONDS, COUNTED IN LOG-LINEAR BUCKETS LIKE HdrHistogram: EVERY POWER OF TWO
+// IS SPLIT INTO HALF_BUCKETS EQUAL BUCKETS, SO A RECORDED VALUE IS OFF BY AT MOST 1/HALF_BUCKETS
+// (ABOUT 3%) WHETHER IT IS 50 NS OR 5 S, AND RECORDING IS AN INDEX COMPUTATION AND ONE ATOMIC ADD.
+//
+// USAGE: long start = histogram.start(); ... histogram.stop(start). WHILE METRICS ARE OFF,
+// start() DOES NOT READ THE CLOCK AND stop() RECORDS NOTHING.
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int HALF_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 2) * HALF_BUCKETS;
+
+	// start() WHILE METRICS ARE OFF
+	private static final long NOT_STARTED = Long.MIN_VALUE;
+
+	private final String name;
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+	LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long start() {
+		return MetricsRegistry.isEnabled() ? System.nanoTime() : NOT_STARTED;
+	}
+
+	public void stop(long start) {
+		if (start != NOT_STARTED) {
+			record(System.nanoTime() - start);
+		}
+	}
+
+	public void record(long nanos) {
+		if (nanos < 0L) {
+			nanos = 0L;
+		}
+
+		counts.incrementAndGet(index(nanos));
+		count.increment();
+		total.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	public HistogramSnapshot snapshot() {
+		long[] buckets = new long[BUCKETS];
+
+		for (int i = 0; i < BUCKETS; i++) {
+			buckets[i] = counts.get(i);
+		}
+		return new HistogramSnapshot(name, buckets, count.sum(), total.sum(), max.get());
+	}
+
+	void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0L);
+		}
+		count.reset();
+		total.reset();
+		max.reset();
+	}
+
+	// VALUES BELOW 2 * HALF_BUCKETS HAVE A BUCKET EACH; ABOVE, THE HIGHEST BIT PICKS THE POWER OF
+	// TWO AND THE NEXT SUB_BUCKET_BITS - 1 BITS PICK THE BUCKET INSIDE IT
+	static int index(long value) {
+		int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+		return shift * HALF_BUCKETS + (int) (value >>> shift);
+	}
+
+	// THE HIGHEST VALUE THAT FALLS IN BUCKET "index"
+	static long highestValue(int index) {
+		int shift = Math.max(0, index / HALF_BUCKETS - 1);
+		long lowest = (long) (index - shift * HALF_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1L;
+	}
+}
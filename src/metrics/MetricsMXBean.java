@@ -0,0 +1,18 @@
+package metrics;
+
+import java.util.Map;
+
+// THE REGISTRY AS SEEN FROM JMX (jconsole, VisualVM...), UNDER MetricsRegistry.OBJECT_NAME.
+// A HISTOGRAM SHOWS UP AS ITS NAME FOLLOWED BY .count, .mean, .p50, .p99, .p999 AND .max
+public interface MetricsMXBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	Map<String, Long> getCounters();
+
+	Map<String, Long> getHistograms();
+
+	void reset();
+}
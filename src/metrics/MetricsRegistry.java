@@ -0,0 +1,123 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// ALL THE COUNTERS AND LATENCY HISTOGRAMS OF THE PROGRAM, BY NAME. THE CODE BEING MEASURED KEEPS
+// ITS OWN Counter OR LatencyHistogram IN A static final FIELD, SO COUNTING NEVER LOOKS A NAME UP.
+//
+// METRICS ARE OFF UNTIL setEnabled(true), OR FROM THE START WITH -Dmetrics.enabled=true, AND CAN
+// BE SWITCHED AT ANY TIME, ALSO THROUGH JMX. WHILE THEY ARE OFF EVERY PROBE IS ONE VOLATILE READ
+// AND A BRANCH, AND THE CLOCK IS NEVER READ.
+public final class MetricsRegistry {
+
+	public static final String OBJECT_NAME = "jchess:type=Metrics";
+
+	private static volatile boolean enabled = Boolean.getBoolean("metrics.enabled");
+
+	private static final Map<String, Counter> COUNTERS = new LinkedHashMap<>();
+	private static final Map<String, LatencyHistogram> HISTOGRAMS = new LinkedHashMap<>();
+
+	private MetricsRegistry() {
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean on) {
+		enabled = on;
+	}
+
+	// THE COUNTER WITH THIS NAME, CREATED ON THE FIRST CALL
+	public static synchronized Counter counter(String name) {
+		return COUNTERS.computeIfAbsent(name, Counter::new);
+	}
+
+	// THE HISTOGRAM WITH THIS NAME, CREATED ON THE FIRST CALL
+	public static synchronized LatencyHistogram histogram(String name) {
+		return HISTOGRAMS.computeIfAbsent(name, LatencyHistogram::new);
+	}
+
+	public static synchronized MetricsSnapshot snapshot() {
+		Map<String, Long> counters = new LinkedHashMap<>();
+		Map<String, HistogramSnapshot> histograms = new LinkedHashMap<>();
+
+		for (Counter counter : COUNTERS.values()) {
+			counters.put(counter.getName(), counter.get());
+		}
+		for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+			histograms.put(histogram.getName(), histogram.snapshot());
+		}
+		return new MetricsSnapshot(enabled, counters, histograms);
+	}
+
+	// BACK TO ZERO, E.G. BEFORE MEASURING ONE RUN. EVENTS COUNTED DURING THE RESET MAY BE LOST
+	public static synchronized void reset() {
+		for (Counter counter : COUNTERS.values()) {
+			counter.reset();
+		}
+		for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+			histogram.reset();
+		}
+	}
+
+	// PUBLISHES THE REGISTRY ON THE PLATFORM MBEAN SERVER UNDER OBJECT_NAME. CALLING IT AGAIN
+	// DOES NOTHING
+	public static void registerMBean() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		try {
+			server.registerMBean(new Metrics(), new ObjectName(OBJECT_NAME));
+		} catch (InstanceAlreadyExistsException e) {
+			// ALREADY PUBLISHED
+		} catch (JMException e) {
+			throw new IllegalStateException("Could not register the metrics MBean", e);
+		}
+	}
+
+	private static final class Metrics implements MetricsMXBean {
+
+		@Override
+		public boolean isEnabled() {
+			return MetricsRegistry.isEnabled();
+		}
+
+		@Override
+		public void setEnabled(boolean enabled) {
+			MetricsRegistry.setEnabled(enabled);
+		}
+
+		@Override
+		public Map<String, Long> getCounters() {
+			return snapshot().getCounters();
+		}
+
+		@Override
+		public Map<String, Long> getHistograms() {
+			Map<String, Long> values = new LinkedHashMap<>();
+
+			for (HistogramSnapshot histogram : snapshot().getHistograms().values()) {
+				String name = histogram.getName();
+				values.put(name + ".count", histogram.getCount());
+				values.put(name + ".mean", Math.round(histogram.getMean()));
+				values.put(name + ".p50", histogram.getPercentile(50.0));
+				values.put(name + ".p99", histogram.getPercentile(99.0));
+				values.put(name + ".p999", histogram.getPercentile(99.9));
+				values.put(name + ".max", histogram.getMax());
+			}
+			return values;
+		}
+
+		@Override
+		public void reset() {
+			MetricsRegistry.reset();
+		}
+	}
+}
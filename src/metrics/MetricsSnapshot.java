@@ -0,0 +1,55 @@
+package metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+// EVERY COUNTER AND HISTOGRAM OF THE REGISTRY AT ONE MOMENT, BY NAME IN REGISTRATION ORDER.
+// EACH VALUE IS READ WITHOUT STOPPING THE OTHERS, SO VALUES UPDATED WHILE THE SNAPSHOT IS TAKEN
+// MAY BE A FEW EVENTS APART
+public final class MetricsSnapshot {
+
+	private final boolean enabled;
+	private final Map<String, Long> counters;
+	private final Map<String, HistogramSnapshot> histograms;
+
+	MetricsSnapshot(boolean enabled, Map<String, Long> counters, Map<String, HistogramSnapshot> histograms) {
+		this.enabled = enabled;
+		this.counters = Collections.unmodifiableMap(counters);
+		this.histograms = Collections.unmodifiableMap(histograms);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public Map<String, Long> getCounters() {
+		return counters;
+	}
+
+	public long getCounter(String name) {
+		Long value = counters.get(name);
+		return (value == null) ? 0L : value;
+	}
+
+	public Map<String, HistogramSnapshot> getHistograms() {
+		return histograms;
+	}
+
+	public HistogramSnapshot getHistogram(String name) {
+		return histograms.get(name);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("metrics ").append(enabled ? "on" : "off").append('\n');
+
+		for (Map.Entry<String, Long> counter : counters.entrySet()) {
+			sb.append(counter.getKey()).append(": ").append(counter.getValue()).append('\n');
+		}
+		for (HistogramSnapshot histogram : histograms.values()) {
+			sb.append(histogram).append('\n');
+		}
+		return sb.toString();
+	}
+}